@@ -4,7 +4,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
@@ -394,6 +397,108 @@ public final class BlockUtil {
 		return blocks;
 	}
 
+	/**
+	 * Return a cursor walking all blocks within the two cuboid bounds one by one in
+	 * chunk-major order, without building a list of them. Use this for large regions
+	 * instead of {@link #getBlocks(Location, Location)}.
+	 *
+	 * @param primary
+	 * @param secondary
+	 * @return
+	 */
+	public static BlockCursor getBlockCursor(final Location primary, final Location secondary) {
+		Valid.checkNotNull(primary, "Primary region point must be set!");
+		Valid.checkNotNull(secondary, "Secondary region point must be set!");
+
+		return new BlockCursor(primary.getWorld(),
+				Math.min(primary.getBlockX(), secondary.getBlockX()), Math.min(primary.getBlockY(), secondary.getBlockY()), Math.min(primary.getBlockZ(), secondary.getBlockZ()),
+				Math.max(primary.getBlockX(), secondary.getBlockX()), Math.max(primary.getBlockY(), secondary.getBlockY()), Math.max(primary.getBlockZ(), secondary.getBlockZ()));
+	}
+
+	/**
+	 * Visit all blocks within the two cuboid bounds in chunk-major order
+	 * without building a list of them.
+	 *
+	 * @param primary
+	 * @param secondary
+	 * @param visitor return false to stop visiting
+	 * @return true if all blocks were visited, false if the visitor stopped early
+	 */
+	public static boolean visitBlocks(final Location primary, final Location secondary, final Predicate<Block> visitor) {
+		final BlockCursor cursor = getBlockCursor(primary, secondary);
+
+		while (cursor.hasNext())
+			if (!visitor.test(cursor.nextBlock()))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Visit all block coordinates within the two cuboid bounds in chunk-major order
+	 * without creating any block objects.
+	 *
+	 * @param primary
+	 * @param secondary
+	 * @param visitor return false to stop visiting
+	 * @return true if all positions were visited, false if the visitor stopped early
+	 */
+	public static boolean visitPositions(final Location primary, final Location secondary, final PositionVisitor visitor) {
+		final BlockCursor cursor = getBlockCursor(primary, secondary);
+
+		while (cursor.hasNext()) {
+			cursor.nextPosition();
+
+			if (!visitor.visit(cursor.getX(), cursor.getY(), cursor.getZ()))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Pack the given block coordinates into a single long, in the same layout
+	 * Minecraft uses for block positions (26 bits x, 26 bits z, 12 bits y)
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public static long toBlockKey(final int x, final int y, final int z) {
+		return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (long) y & 0xFFF;
+	}
+
+	/**
+	 * Return the x coordinate from a key made by {@link #toBlockKey(int, int, int)}
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static int getBlockKeyX(final long key) {
+		return (int) (key >> 38);
+	}
+
+	/**
+	 * Return the y coordinate from a key made by {@link #toBlockKey(int, int, int)}
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static int getBlockKeyY(final long key) {
+		return (int) (key << 52 >> 52);
+	}
+
+	/**
+	 * Return the z coordinate from a key made by {@link #toBlockKey(int, int, int)}
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static int getBlockKeyZ(final long key) {
+		return (int) (key << 26 >> 38);
+	}
+
 	/**
 	 * Return all blocks in the given chunk
 	 *
@@ -923,6 +1028,215 @@ public final class BlockUtil {
 		return (int) (max.getY() - min.getY() + 1.0D);
 	}
 
+	/**
+	 * Visits block coordinates, see {@link BlockUtil#visitPositions(Location, Location, PositionVisitor)}
+	 */
+	@FunctionalInterface
+	public interface PositionVisitor {
+
+		/**
+		 * Visit the given block coordinates
+		 *
+		 * @param x
+		 * @param y
+		 * @param z
+		 * @return false to stop visiting
+		 */
+		boolean visit(int x, int y, int z);
+	}
+
+	/**
+	 * A cursor walking a cuboid one block at a time in chunk-major order, chunk by chunk
+	 * and within each chunk layer by layer from the bottom up. Holds no block list, so it
+	 * is safe to use on regions of any size.
+	 *
+	 * Positions are returned packed via {@link BlockUtil#toBlockKey(int, int, int)}, the
+	 * cursor can also be used as a {@link Spliterator} for streams via
+	 * {@link java.util.stream.StreamSupport#longStream(Spliterator.OfLong, boolean)}.
+	 */
+	public static final class BlockCursor implements Spliterator.OfLong {
+
+		/**
+		 * The world, used when getting blocks
+		 */
+		@Getter
+		private final World world;
+
+		/*
+		 * The cuboid bounds
+		 */
+		private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+		/*
+		 * The current chunk and its clamped x-z bounds
+		 */
+		private int chunkX, chunkZ;
+		private int startX, endX, startZ, endZ;
+
+		/*
+		 * The next position to return
+		 */
+		private int nextX, nextY, nextZ;
+
+		/**
+		 * The last returned position
+		 */
+		@Getter
+		private int x, y, z;
+
+		/**
+		 * How many blocks are in the cuboid in total
+		 */
+		@Getter
+		private final long volume;
+
+		/**
+		 * How many blocks are left to walk
+		 */
+		@Getter
+		private long remaining;
+
+		private BlockCursor(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+			this.world = world;
+			this.minX = minX;
+			this.minY = minY;
+			this.minZ = minZ;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.maxZ = maxZ;
+
+			this.volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+			this.remaining = this.volume;
+
+			this.chunkX = minX >> 4;
+			this.chunkZ = minZ >> 4;
+
+			this.enterChunk();
+		}
+
+		/**
+		 * Return true if there are blocks left to walk
+		 *
+		 * @return
+		 */
+		public boolean hasNext() {
+			return this.remaining > 0;
+		}
+
+		/**
+		 * Advance to the next block and return its packed position.
+		 * You can then also read its coordinates via {@link #getX()}, {@link #getY()} and {@link #getZ()}
+		 *
+		 * @return
+		 */
+		public long nextPosition() {
+			if (this.remaining <= 0)
+				throw new NoSuchElementException("No more blocks to walk in " + this);
+
+			this.x = this.nextX;
+			this.y = this.nextY;
+			this.z = this.nextZ;
+
+			if (--this.remaining > 0)
+				this.step();
+
+			return toBlockKey(this.x, this.y, this.z);
+		}
+
+		/**
+		 * Advance to the next block and return it
+		 *
+		 * @return
+		 */
+		public Block nextBlock() {
+			this.nextPosition();
+
+			return this.world.getBlockAt(this.x, this.y, this.z);
+		}
+
+		/**
+		 * @see java.util.Spliterator.OfLong#tryAdvance(java.util.function.LongConsumer)
+		 */
+		@Override
+		public boolean tryAdvance(LongConsumer action) {
+			if (!this.hasNext())
+				return false;
+
+			action.accept(this.nextPosition());
+			return true;
+		}
+
+		/**
+		 * The walk order is fixed, splitting is not supported
+		 *
+		 * @see java.util.Spliterator.OfLong#trySplit()
+		 */
+		@Override
+		public Spliterator.OfLong trySplit() {
+			return null;
+		}
+
+		/**
+		 * @see java.util.Spliterator#estimateSize()
+		 */
+		@Override
+		public long estimateSize() {
+			return this.remaining;
+		}
+
+		/**
+		 * @see java.util.Spliterator#characteristics()
+		 */
+		@Override
+		public int characteristics() {
+			return ORDERED | DISTINCT | SIZED | NONNULL | IMMUTABLE;
+		}
+
+		/*
+		 * Move to the next position, switching chunks when the current one is walked
+		 */
+		private void step() {
+			if (++this.nextX <= this.endX)
+				return;
+
+			this.nextX = this.startX;
+
+			if (++this.nextZ <= this.endZ)
+				return;
+
+			this.nextZ = this.startZ;
+
+			if (++this.nextY <= this.maxY)
+				return;
+
+			if (++this.chunkZ > this.maxZ >> 4) {
+				this.chunkZ = this.minZ >> 4;
+				this.chunkX++;
+			}
+
+			this.enterChunk();
+		}
+
+		/*
+		 * Clamp the bounds to the current chunk and reset the position to its first block
+		 */
+		private void enterChunk() {
+			this.startX = Math.max(this.minX, this.chunkX << 4);
+			this.endX = Math.min(this.maxX, this.chunkX << 4 | 15);
+			this.startZ = Math.max(this.minZ, this.chunkZ << 4);
+			this.endZ = Math.min(this.maxZ, this.chunkZ << 4 | 15);
+
+			this.nextX = this.startX;
+			this.nextY = this.minY;
+			this.nextZ = this.startZ;
+		}
+
+		@Override
+		public String toString() {
+			return "BlockCursor{" + this.minX + " " + this.minY + " " + this.minZ + " - " + this.maxX + " " + this.maxY + " " + this.maxZ + ", remaining=" + this.remaining + "}";
+		}
+	}
+
 	@RequiredArgsConstructor
 	private final static class VectorHelper {
 
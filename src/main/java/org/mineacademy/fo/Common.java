@@ -2625,10 +2625,14 @@ public final class Common {
 	private static Method execute;
 	private static Method cancel;
 	private static Method cancelTasks;
+	private static Object foliaRegionScheduler;
+	private static Method executeAtChunk;
 
 	static {
 		if (Remain.isFolia()) {
 			foliaScheduler = ReflectionUtil.invoke("getGlobalRegionScheduler", org.bukkit.Bukkit.getServer());
+			foliaRegionScheduler = ReflectionUtil.invoke("getRegionScheduler", org.bukkit.Bukkit.getServer());
+			executeAtChunk = ReflectionUtil.getMethod(foliaRegionScheduler.getClass(), "execute", Plugin.class, World.class, int.class, int.class, Runnable.class);
 			runAtFixedRate = ReflectionUtil.getMethod(foliaScheduler.getClass(), "runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
 			execute = ReflectionUtil.getMethod(foliaScheduler.getClass(), "run", Plugin.class, Consumer.class);
 			runDelayed = ReflectionUtil.getMethod(foliaScheduler.getClass(), "runDelayed", Plugin.class, Consumer.class, long.class);
@@ -2700,6 +2704,26 @@ public final class Common {
 		}
 	}
 
+	/**
+	 * Runs the task on the thread owning the given chunk. On Folia this is the
+	 * region thread of the chunk, elsewhere the main thread on the next tick.
+	 *
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param runnable
+	 */
+	public static void runAtChunk(final World world, final int chunkX, final int chunkZ, final Runnable runnable) {
+		if (runIfDisabled(runnable))
+			return;
+
+		if (Remain.isFolia())
+			ReflectionUtil.invoke(executeAtChunk, foliaRegionScheduler, SimplePlugin.getInstance(), world, chunkX, chunkZ, runnable);
+
+		else
+			runLater(runnable);
+	}
+
 	/**
 	 * Runs the task async even if the plugin is disabled for some reason.
 	 * <p>
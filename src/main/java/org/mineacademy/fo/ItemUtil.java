@@ -1,8 +1,9 @@
 
 package org.mineacademy.fo;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
@@ -19,6 +20,7 @@ import org.mineacademy.fo.remain.Remain;
 import org.mineacademy.fo.remain.nbt.NBTItem;
 
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 
@@ -125,6 +127,9 @@ public final class ItemUtil {
 	 * Two items are similar if both are not null and if their type, data, name and lore equals.
 	 * The damage, quantity, item flags enchants and other properties are ignored.
 	 *
+	 * When comparing many items to the same item, create its {@link SimilarityKey} once
+	 * and use {@link SimilarityKey#matches(ItemStack)} instead.
+	 *
 	 * @param first
 	 * @param second
 	 * @return true if items are similar (see above)
@@ -136,84 +141,238 @@ public final class ItemUtil {
 		final boolean firstAir = CompMaterial.isAir(first.getType());
 		final boolean secondAir = CompMaterial.isAir(second.getType());
 
-		if ((firstAir && !secondAir) || (!firstAir && secondAir))
+		if (firstAir || secondAir)
+			return firstAir && secondAir;
+
+		// Fail fast before reading any meta
+		if (first.getType() != second.getType() || first.hasItemMeta() != second.hasItemMeta())
 			return false;
 
-		if (firstAir && secondAir)
-			return true;
+		return SimilarityKey.of(first).matches(second);
+	}
 
-		final boolean idMatch = first.getType() == second.getType();
+	/*
+	 * Remove colors only if the text may have any, saving a regex pass for plain lines
+	 */
+	private static String stripColors(String text) {
+		if (text == null || text.indexOf('&') == -1 && text.indexOf(CompChatColor.COLOR_CHAR) == -1 && text.indexOf('#') == -1)
+			return text;
 
-		final boolean isSkull = CompMaterial.isSkull(first.getType()) && CompMaterial.isSkull(second.getType());
-		boolean dataMatch = !LEGACY_MATERIALS || isSkull || first.getData().getData() == second.getData().getData();
-		final boolean metaMatch = Remain.hasItemMeta() && first.hasItemMeta() == second.hasItemMeta();
+		return Common.stripColors(text);
+	}
 
-		if (!idMatch || !metaMatch || !(dataMatch || (dataMatch = first.getType() == Material.BOW)))
-			return false;
+	/**
+	 * The parts of an item compared by {@link ItemUtil#isSimilar(ItemStack, ItemStack)}, with
+	 * colors already stripped and a 64-bit fingerprint of them.
+	 *
+	 * Keys are immutable and can be cached for template items, such as tools or
+	 * menu buttons, so that scanning an inventory only reads each scanned item once.
+	 * Two keys are equal if their items are similar. Keys are compared by their fingerprint
+	 * first and the stored parts are only compared when fingerprints are equal.
+	 *
+	 * Changing the item after creating its key is not reflected.
+	 */
+	public static final class SimilarityKey {
+
+		/**
+		 * The item type
+		 */
+		private final Material type;
+
+		/**
+		 * Is the item air? All air items are similar
+		 */
+		private final boolean air;
+
+		/**
+		 * The legacy data value, or -1 if it is not compared
+		 */
+		private final int data;
+
+		/**
+		 * Does the item have meta?
+		 */
+		private final boolean meta;
+
+		/**
+		 * The display name without colors, or null
+		 */
+		private final String name;
+
+		/**
+		 * The lore lines without colors, empty if none
+		 */
+		private final String[] lore;
+
+		/**
+		 * Values of the plugin NBT tags, null for missing tags
+		 */
+		private final String[] nbt;
+
+		/**
+		 * The 64-bit hash of all parts above
+		 */
+		@Getter
+		private final long fingerprint;
+
+		private SimilarityKey(ItemStack item) {
+			this.type = item.getType();
+			this.air = CompMaterial.isAir(this.type);
+			this.data = getComparedData(item);
+			this.meta = !this.air && item.hasItemMeta();
+
+			String name = null;
+			String[] lore = new String[0];
+			final String[] nbt = new String[2];
+
+			if (this.meta) {
+				final ItemMeta itemMeta = item.getItemMeta();
+
+				if (itemMeta != null) {
+					name = itemMeta.hasDisplayName() ? stripColors(itemMeta.getDisplayName()) : null;
+
+					final List<String> itemLore = itemMeta.hasLore() ? itemMeta.getLore() : null;
+
+					if (itemLore != null) {
+						lore = new String[itemLore.size()];
+
+						for (int i = 0; i < lore.length; i++)
+							lore[i] = stripColors(itemLore.get(i));
+					}
+				}
+
+				// Custom NBT tags can only be present on items with meta
+				if (MinecraftVersion.atLeast(V.v1_7)) {
+					final NBTItem nbtItem = new NBTItem(item);
+
+					nbt[0] = readNbt(nbtItem, SimplePlugin.getNamed());
+					nbt[1] = readNbt(nbtItem, SimplePlugin.getNamed() + "_Item");
+				}
+			}
 
-		// ItemMeta
-		{
-			final ItemMeta f = first.getItemMeta();
-			final ItemMeta s = second.getItemMeta();
+			this.name = name;
+			this.lore = lore;
+			this.nbt = nbt;
+			this.fingerprint = this.computeFingerprint();
+		}
 
-			if ((f == null && s != null) || (s == null && f != null))
-				return false;
+		/*
+		 * Mix all compared parts into a 64-bit hash
+		 */
+		private long computeFingerprint() {
+			if (this.air)
+				return 0;
 
-			if (f != null && s != null) {
-				final String fName = Common.stripColors(f.getDisplayName());
-				final String sName = Common.stripColors(s.getDisplayName());
+			long hash = mix(1125899906842597L, this.type.ordinal());
 
-				if ((fName != null && !fName.equals(sName)) || !listMatch(f.getLore(), s.getLore()))
-					return false;
-			}
-		}
+			hash = mix(hash, this.data);
+			hash = mix(hash, this.meta ? 1 : 0);
+			hash = mix(hash, Objects.hashCode(this.name));
+			hash = mix(hash, this.lore.length);
 
-		if (MinecraftVersion.atLeast(V.v1_7)) {
-			final NBTItem firstNbt = new NBTItem(first);
-			final NBTItem secondNbt = new NBTItem(second);
+			for (final String line : this.lore)
+				hash = mix(hash, Objects.hashCode(line));
 
-			return matchNbt(SimplePlugin.getNamed(), firstNbt, secondNbt) && matchNbt(SimplePlugin.getNamed() + "_Item", firstNbt, secondNbt);
+			for (final String value : this.nbt)
+				hash = mix(hash, Objects.hashCode(value));
+
+			return hash;
 		}
 
-		return true;
-	}
+		/**
+		 * Return true if the given item is similar to the item of this key.
+		 *
+		 * Type, data and meta presence are checked first, so that most
+		 * different items are rejected without reading their meta.
+		 *
+		 * @param item
+		 * @return
+		 */
+		public boolean matches(ItemStack item) {
+			if (item == null)
+				return false;
 
-	private static boolean listMatch(List<String> first, List<String> second) {
+			final Material otherType = item.getType();
 
-		if (first == null)
-			first = new ArrayList<>();
+			if (this.air || CompMaterial.isAir(otherType))
+				return this.air && CompMaterial.isAir(otherType);
 
-		if (second == null)
-			second = new ArrayList<>();
+			if (otherType != this.type || this.data != getComparedData(item) || !Remain.hasItemMeta() || item.hasItemMeta() != this.meta)
+				return false;
 
-		if (first.isEmpty() && second.isEmpty())
-			return true;
+			// Neither has a name, lore or tags
+			if (!this.meta)
+				return true;
 
-		if (first.size() != second.size())
-			return false;
+			return this.equals(new SimilarityKey(item));
+		}
 
-		for (int i = 0; i < first.size(); i++) {
-			final String firstString = first.get(i);
-			final String secondString = second.get(i);
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
 
-			if (!Common.stripColors(firstString).equals(Common.stripColors(secondString)))
+			if (!(obj instanceof SimilarityKey))
 				return false;
+
+			final SimilarityKey other = (SimilarityKey) obj;
+
+			if (this.air || other.air)
+				return this.air && other.air;
+
+			return this.fingerprint == other.fingerprint
+					&& this.type == other.type
+					&& this.data == other.data
+					&& this.meta == other.meta
+					&& Objects.equals(this.name, other.name)
+					&& Arrays.equals(this.lore, other.lore)
+					&& Arrays.equals(this.nbt, other.nbt);
 		}
 
-		return true;
-	}
+		@Override
+		public int hashCode() {
+			return (int) (this.fingerprint ^ this.fingerprint >>> 32);
+		}
 
-	// Compares the NBT string tag of two items
-	private static boolean matchNbt(String key, NBTItem firstNbt, NBTItem secondNbt) {
-		final boolean firstHas = firstNbt.hasTag(key);
-		final boolean secondHas = secondNbt.hasTag(key);
+		@Override
+		public String toString() {
+			return "SimilarityKey{" + this.type + (this.name != null ? ", " + this.name : "") + ", " + Long.toHexString(this.fingerprint) + "}";
+		}
+
+		/**
+		 * Create a new similarity key for the given item
+		 *
+		 * @param item
+		 * @return
+		 */
+		public static SimilarityKey of(@NonNull ItemStack item) {
+			return new SimilarityKey(item);
+		}
+
+		/*
+		 * Return the legacy data value compared for this item, or -1 if data are ignored for it
+		 */
+		private static int getComparedData(ItemStack item) {
+			if (!LEGACY_MATERIALS || CompMaterial.isSkull(item.getType()) || item.getType() == Material.BOW)
+				return -1;
 
-		if (!firstHas && !secondHas)
-			return true; // nothing has, essentially same
+			return item.getData().getData();
+		}
+
+		/*
+		 * Return the string tag value or null if not set
+		 */
+		private static String readNbt(NBTItem item, String key) {
+			return item.hasTag(key) ? item.getString(key) : null;
+		}
 
-		else if (firstHas && !secondHas || !firstHas && secondHas)
-			return false; // one has but another hasn't, cannot be same
+		/*
+		 * Mix the value into the hash
+		 */
+		private static long mix(long hash, long value) {
+			hash ^= value + 0x9E3779B97F4A7C15L + (hash << 6) + (hash >>> 2);
 
-		return firstNbt.getString(key).equals(secondNbt.getString(key));
+			return hash * 0xBF58476D1CE4E5B9L;
+		}
 	}
 }
@@ -37,6 +37,7 @@ import org.bukkit.plugin.Plugin;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
+import org.mineacademy.fo.ItemUtil.SimilarityKey;
 import org.mineacademy.fo.MinecraftVersion.V;
 import org.mineacademy.fo.collection.SerializedMap;
 import org.mineacademy.fo.exception.FoException;
@@ -896,8 +897,13 @@ public final class PlayerUtil {
 	 * @return
 	 */
 	public static ItemStack getFirstItem(final Player player, final ItemStack item) {
+		if (item == null)
+			return null;
+
+		final SimilarityKey key = SimilarityKey.of(item);
+
 		for (final ItemStack otherItem : player.getInventory().getContents())
-			if (otherItem != null && ItemUtil.isSimilar(otherItem, item))
+			if (otherItem != null && key.matches(otherItem))
 				return otherItem;
 
 		return null;
@@ -1009,10 +1015,15 @@ public final class PlayerUtil {
 	public static boolean updateInvSlot(final Inventory inv, final ItemStack search, final ItemStack replaceWith) {
 		Valid.checkNotNull(inv, "Inv = null");
 
+		if (search == null)
+			return false;
+
+		final SimilarityKey key = SimilarityKey.of(search);
+
 		for (int i = 0; i < inv.getSize(); i++) {
 			final ItemStack slot = inv.getItem(i);
 
-			if (slot != null && ItemUtil.isSimilar(slot, search)) {
+			if (slot != null && key.matches(slot)) {
 				inv.setItem(i, replaceWith);
 
 				return true;
@@ -1,11 +1,15 @@
 package org.mineacademy.fo;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
 import lombok.experimental.UtilityClass;
 import org.bukkit.ChatColor;
@@ -15,6 +19,7 @@ import org.bukkit.DyeColor;
 import org.bukkit.Location;
 
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 /**
@@ -85,7 +90,7 @@ public final class RandomUtil {
 	 * @return
 	 */
 	public boolean chance(final int percent) {
-		return random.nextDouble() * 100D < percent;
+		return ThreadLocalRandom.current().nextDouble() * 100D < percent;
 	}
 
 	/**
@@ -95,7 +100,7 @@ public final class RandomUtil {
 	 * @return
 	 */
 	public boolean chanceD(final double percent) {
-		return random.nextDouble() < percent;
+		return ThreadLocalRandom.current().nextDouble() < percent;
 	}
 
 	/**
@@ -190,7 +195,7 @@ public final class RandomUtil {
 	public int nextInt(final int boundExclusive) {
 		Valid.checkBoolean(boundExclusive > 0, "Getting a random number must have the bound above 0, got: " + boundExclusive);
 
-		return random.nextInt(boundExclusive);
+		return ThreadLocalRandom.current().nextInt(boundExclusive);
 	}
 
 	/**
@@ -199,7 +204,7 @@ public final class RandomUtil {
 	 * @return
 	 */
 	public boolean nextBoolean() {
-		return random.nextBoolean();
+		return ThreadLocalRandom.current().nextBoolean();
 	}
 
 	/**
@@ -242,6 +247,67 @@ public final class RandomUtil {
 		return list.get(nextInt(list.size()));
 	}
 
+	/**
+	 * Return the given count of distinct random items, or all items in random order if there are fewer
+	 *
+	 * @param <T>
+	 * @param items
+	 * @param count
+	 * @return
+	 */
+	public <T> List<T> nextItems(final Collection<T> items, final int count) {
+		Valid.checkBoolean(count >= 0, "Cannot pick a negative count of items, got: " + count);
+
+		final Object[] array = items.toArray();
+		final int picked = Math.min(count, array.length);
+		final List<T> result = new ArrayList<>(picked);
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		// Shuffle only the part we return
+		for (int i = 0; i < picked; i++) {
+			final int swap = i + random.nextInt(array.length - i);
+			final Object item = array[swap];
+
+			array[swap] = array[i];
+			array[i] = item;
+
+			result.add((T) item);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Return a sampler picking the given items randomly by their weights,
+	 * see {@link WeightedSampler}. Items with zero weight are never picked.
+	 *
+	 * @param <T>
+	 * @param items
+	 * @param weight
+	 * @return
+	 */
+	public <T> WeightedSampler<T> newWeightedSampler(final Collection<T> items, final ToDoubleFunction<T> weight) {
+		final double[] weights = new double[items.size()];
+		int index = 0;
+
+		for (final T item : items)
+			weights[index++] = weight.applyAsDouble(item);
+
+		return new WeightedSampler<>(items.toArray(), weights);
+	}
+
+	/**
+	 * Return a sampler picking the keys randomly by their weights,
+	 * see {@link WeightedSampler}. Keys with zero weight are never picked.
+	 *
+	 * @param <T>
+	 * @param weights
+	 * @return
+	 */
+	public <T> WeightedSampler<T> newWeightedSampler(final Map<T, ? extends Number> weights) {
+		return newWeightedSampler(weights.keySet(), key -> weights.get(key).doubleValue());
+	}
+
 	/**
 	 * Returns a random location
 	 *
@@ -349,4 +415,193 @@ public final class RandomUtil {
 	public int nextChunkZ(final Chunk chunk) {
 		return RandomUtil.nextInt(16) + (chunk.getZ() << 4) - 16;
 	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Classes
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Picks items randomly by their weights. The weights are compiled into
+	 * a Vose alias table once, so each pick takes constant time no matter
+	 * how many items there are. Create a new sampler when the weights change.
+	 *
+	 * Safe to use from multiple threads.
+	 *
+	 * @param <T>
+	 */
+	public static final class WeightedSampler<T> {
+
+		/**
+		 * The items we pick from
+		 */
+		private final Object[] items;
+
+		/**
+		 * The weight of each item
+		 */
+		private final double[] weights;
+
+		/**
+		 * The chance of picking the item itself and not its alias in each column
+		 */
+		private final double[] probabilities;
+
+		/**
+		 * The other item in each column
+		 */
+		private final int[] aliases;
+
+		/**
+		 * The sum of all weights
+		 */
+		@Getter
+		private final double totalWeight;
+
+		/*
+		 * Compile the alias table using Vose's method
+		 */
+		private WeightedSampler(Object[] items, double[] weights) {
+			final int size = items.length;
+			double totalWeight = 0;
+
+			for (final double weight : weights) {
+				Valid.checkBoolean(weight >= 0 && !Double.isInfinite(weight) && !Double.isNaN(weight), "Weights must be finite numbers above or equal zero, got: " + weight);
+
+				totalWeight += weight;
+			}
+
+			Valid.checkBoolean(totalWeight > 0, "Cannot pick from " + size + " items having no weight in total");
+
+			this.items = items;
+			this.weights = weights;
+			this.probabilities = new double[size];
+			this.aliases = new int[size];
+			this.totalWeight = totalWeight;
+
+			final double[] scaled = new double[size];
+			final int[] small = new int[size];
+			final int[] large = new int[size];
+			int smallCount = 0;
+			int largeCount = 0;
+
+			for (int i = 0; i < size; i++) {
+				scaled[i] = weights[i] * size / totalWeight;
+
+				if (scaled[i] < 1)
+					small[smallCount++] = i;
+				else
+					large[largeCount++] = i;
+			}
+
+			while (smallCount > 0 && largeCount > 0) {
+				final int less = small[--smallCount];
+				final int more = large[--largeCount];
+
+				this.probabilities[less] = scaled[less];
+				this.aliases[less] = more;
+
+				scaled[more] = scaled[more] + scaled[less] - 1;
+
+				if (scaled[more] < 1)
+					small[smallCount++] = more;
+				else
+					large[largeCount++] = more;
+			}
+
+			// Leftovers are full columns, small ones only remain due to rounding errors
+			while (largeCount > 0)
+				this.probabilities[large[--largeCount]] = 1;
+
+			while (smallCount > 0)
+				this.probabilities[small[--smallCount]] = 1;
+		}
+
+		/**
+		 * Return a random item by weight
+		 *
+		 * @return
+		 */
+		public T next() {
+			final ThreadLocalRandom random = ThreadLocalRandom.current();
+			final int column = random.nextInt(this.items.length);
+
+			return (T) this.items[random.nextDouble() < this.probabilities[column] ? column : this.aliases[column]];
+		}
+
+		/**
+		 * Return the given count of random items by weight, items may repeat
+		 *
+		 * @param count
+		 * @return
+		 */
+		public List<T> next(final int count) {
+			Valid.checkBoolean(count >= 0, "Cannot pick a negative count of items, got: " + count);
+
+			final List<T> picked = new ArrayList<>(count);
+
+			for (int i = 0; i < count; i++)
+				picked.add(this.next());
+
+			return picked;
+		}
+
+		/**
+		 * Return the given count of distinct random items by weight, in the order
+		 * they would be drawn one by one without putting them back. If fewer items
+		 * have weight, all of them are returned.
+		 *
+		 * This uses weighted random keys (Efraimidis-Spirakis) in one pass over the items.
+		 *
+		 * @param count
+		 * @return
+		 */
+		public List<T> nextDistinct(final int count) {
+			Valid.checkBoolean(count >= 0, "Cannot pick a negative count of items, got: " + count);
+
+			if (count == 0)
+				return new ArrayList<>();
+
+			final ThreadLocalRandom random = ThreadLocalRandom.current();
+			final double[] keys = new double[this.items.length];
+			final PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(count, this.items.length), (first, second) -> Double.compare(keys[first], keys[second]));
+
+			for (int i = 0; i < this.items.length; i++) {
+				if (this.weights[i] == 0)
+					continue;
+
+				// Same order as random^(1 / weight) but without losing precision for small weights
+				keys[i] = Math.log(1 - random.nextDouble()) / this.weights[i];
+
+				if (best.size() < count)
+					best.add(i);
+
+				else if (keys[i] > keys[best.peek()]) {
+					best.poll();
+					best.add(i);
+				}
+			}
+
+			final Object[] picked = new Object[best.size()];
+
+			// The queue returns the lowest key first, we want the highest first
+			for (int i = picked.length - 1; i >= 0; i--)
+				picked[i] = this.items[best.poll()];
+
+			final List<T> result = new ArrayList<>(picked.length);
+
+			for (final Object item : picked)
+				result.add((T) item);
+
+			return result;
+		}
+
+		/**
+		 * Return how many items we pick from, including those with zero weight
+		 *
+		 * @return
+		 */
+		public int size() {
+			return this.items.length;
+		}
+	}
 }
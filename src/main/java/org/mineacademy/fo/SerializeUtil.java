@@ -51,6 +51,7 @@ import org.mineacademy.fo.model.RangedSimpleTime;
 import org.mineacademy.fo.model.RangedValue;
 import org.mineacademy.fo.model.SimpleSound;
 import org.mineacademy.fo.model.SimpleTime;
+import org.mineacademy.fo.remain.BinaryItemStack;
 import org.mineacademy.fo.remain.CompChatColor;
 import org.mineacademy.fo.remain.CompMaterial;
 import org.mineacademy.fo.remain.JsonItemStack;
@@ -112,7 +113,7 @@ public final class SerializeUtil {
 		if (object == null)
 			return null;
 
-		final boolean isJson = mode == Mode.JSON;
+		final boolean isJson = mode != Mode.YAML;
 		object = Remain.getRootOfSectionPathData(object);
 
 		if (serializers.containsKey(object.getClass()))
@@ -128,7 +129,7 @@ public final class SerializeUtil {
 
 			if (isJson) {
 				if (object instanceof ItemStack)
-					return JsonItemStack.toJson((ItemStack) object);
+					return mode == Mode.BINARY ? BinaryItemStack.toBase64((ItemStack) object) : JsonItemStack.toJson((ItemStack) object);
 
 				throw new FoException("serializing " + object.getClass().getSimpleName() + " to JSON is not implemented! Please serialize it to string manually first!");
 			}
@@ -220,6 +221,9 @@ public final class SerializeUtil {
 		else if (object instanceof Path)
 			throw new FoException("Cannot serialize Path " + object + ", did you mean to convert it into a name?");
 
+		else if (mode == Mode.BINARY && object instanceof ItemStack[])
+			return BinaryItemStack.toBase64((ItemStack[]) object);
+
 		else if (object instanceof Iterable || object.getClass().isArray() || object instanceof IsInList) {
 
 			if (isJson) {
@@ -227,13 +231,13 @@ public final class SerializeUtil {
 
 				if (object instanceof Iterable || object instanceof IsInList) {
 					for (final Object element : object instanceof IsInList ? ((IsInList<?>) object).getList() : (Iterable<?>) object)
-						addJsonElement(element, jsonList);
+						addJsonElement(mode, element, jsonList);
 
 				} else {
 					final Object[] array = (Object[]) object;
 
 					for (int i = 0; i < array.length; i++)
-						jsonList.add(toJsonElement(array[i]));
+						jsonList.add(toJsonElement(mode, array[i]));
 				}
 
 				return jsonList;
@@ -335,7 +339,7 @@ public final class SerializeUtil {
 		else if (object instanceof ConfigurationSerializable) {
 
 			if (object instanceof ItemStack) {
-				return isJson ? JsonItemStack.toJson((ItemStack) object) : object;
+				return mode == Mode.BINARY ? BinaryItemStack.toBase64((ItemStack) object) : isJson ? JsonItemStack.toJson((ItemStack) object) : object;
 
 			} else if (isJson)
 				throw new FoException("Serializing " + object.getClass().getSimpleName() + " to JSON is not implemented! Please serialize it to string manually first!");
@@ -350,15 +354,18 @@ public final class SerializeUtil {
 	/*
 	 * Helps to add an unknown element into a json list
 	 */
-	private static void addJsonElement(Object element, JSONArray jsonList) {
+	private static void addJsonElement(Mode mode, Object element, JSONArray jsonList) {
 		if (element == null)
 			return;
 
 		if (element instanceof Jsonable)
 			jsonList.add(element);
 
+		else if (mode == Mode.BINARY && element instanceof ItemStack)
+			jsonList.add(BinaryItemStack.toBase64((ItemStack) element));
+
 		else {
-			element = serialize(Mode.JSON, element);
+			element = serialize(mode, element);
 
 			// Assume the element is a JSON string
 			try {
@@ -379,15 +386,18 @@ public final class SerializeUtil {
 	/*
 	 * Helps to add an unknown element into a json list
 	 */
-	private static Object toJsonElement(Object element) {
+	private static Object toJsonElement(Mode mode, Object element) {
 		if (element == null)
 			return null;
 
 		if (element instanceof Jsonable)
 			return element;
 
+		else if (mode == Mode.BINARY && element instanceof ItemStack)
+			return BinaryItemStack.toBase64((ItemStack) element);
+
 		else {
-			element = serialize(Mode.JSON, element);
+			element = serialize(mode, element);
 
 			// Assume the element is a JSON string
 			try {
@@ -506,7 +516,7 @@ public final class SerializeUtil {
 	@SuppressWarnings("rawtypes")
 	public static <T> T deserialize(@NonNull Mode mode, @NonNull final Class<T> classOf, @NonNull Object object, final Object... parameters) {
 
-		final boolean isJson = mode == Mode.JSON;
+		final boolean isJson = mode != Mode.YAML;
 
 		if (classOf == String.class)
 			object = object.toString();
@@ -688,6 +698,11 @@ public final class SerializeUtil {
 
 			else {
 				if (ItemStack[].class.isAssignableFrom(classOf)) {
+
+					// The whole array was stored at once, see BinaryItemStack#toBase64(ItemStack[])
+					if (BinaryItemStack.isBase64(object))
+						return (T) BinaryItemStack.fromBase64Array(object.toString());
+
 					// The object is a raw json string. It's a list of json itemstacks. We need to call JsonItemStack#fromJson for each element in the list.
 					final List<ItemStack> list = new ArrayList<>();
 
@@ -866,7 +881,11 @@ public final class SerializeUtil {
 			if (obj instanceof ItemStack)
 				return (ItemStack) obj;
 
-			if (mode == Mode.JSON)
+			// Items written in binary mode are recognized in any mode
+			if (BinaryItemStack.isBase64(obj))
+				return BinaryItemStack.fromBase64(obj.toString());
+
+			if (mode != Mode.YAML)
 				return JsonItemStack.fromJson(obj.toString());
 
 			final SerializedMap map = SerializedMap.of(obj);
@@ -937,7 +956,13 @@ public final class SerializeUtil {
 	 */
 	public enum Mode {
 		JSON,
-		YAML
+		YAML,
+
+		/**
+		 * Same as {@link #JSON} except that {@link ItemStack} and {@link ItemStack}[] are stored
+		 * as compact Base64 strings, see {@link BinaryItemStack}. Such strings are read back in any mode.
+		 */
+		BINARY
 	}
 
 	/**
@@ -4,10 +4,13 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.UUID;
 
+import org.bukkit.inventory.ItemStack;
 import org.mineacademy.fo.ReflectionUtil;
 import org.mineacademy.fo.bungee.BungeeListener;
 import org.mineacademy.fo.bungee.BungeeMessageType;
 import org.mineacademy.fo.collection.SerializedMap;
+import org.mineacademy.fo.exception.FoException;
+import org.mineacademy.fo.remain.BinaryItemStack;
 
 import com.google.common.io.ByteArrayDataInput;
 
@@ -111,6 +114,49 @@ public final class IncomingMessage extends Message {
 		return SerializedMap.fromJson(this.input.readUTF());
 	}
 
+	/**
+	 * Read an item written by {@link OutgoingMessage#writeItem(ItemStack)}
+	 *
+	 * Since messages may come from players, items stored using Bukkit's
+	 * serialization are rejected, see {@link BinaryItemStack#fromBytes(byte[], boolean)}
+	 *
+	 * @return
+	 */
+	public ItemStack readItem() {
+		this.moveHead(ItemStack.class);
+
+		return BinaryItemStack.fromBytes(this.readSizedBytes(), false);
+	}
+
+	/**
+	 * Read items written by {@link OutgoingMessage#writeItems(ItemStack[])}
+	 *
+	 * Since messages may come from players, items stored using Bukkit's
+	 * serialization are rejected, see {@link BinaryItemStack#fromBytesArray(byte[], boolean)}
+	 *
+	 * @return
+	 */
+	public ItemStack[] readItems() {
+		this.moveHead(ItemStack[].class);
+
+		return BinaryItemStack.fromBytesArray(this.readSizedBytes(), false);
+	}
+
+	/*
+	 * Read a byte array prefixed by its length
+	 */
+	private byte[] readSizedBytes() {
+		final int length = this.input.readInt();
+
+		if (length < 0 || length > this.data.length)
+			throw new FoException("Malformed message, cannot read " + length + " bytes from " + this.data.length + " bytes of data");
+
+		final byte[] bytes = new byte[length];
+		this.input.readFully(bytes);
+
+		return bytes;
+	}
+
 	/**
 	 * Read an enumerator from the given string data
 	 *
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import org.bukkit.inventory.ItemStack;
 import org.mineacademy.fo.Valid;
 import org.mineacademy.fo.bungee.BungeeListener;
 import org.mineacademy.fo.bungee.BungeeMessageType;
@@ -11,6 +12,7 @@ import org.mineacademy.fo.collection.SerializedMap;
 import org.mineacademy.fo.exception.FoException;
 import org.mineacademy.fo.model.ConfigSerializable;
 import org.mineacademy.fo.plugin.SimplePlugin;
+import org.mineacademy.fo.remain.BinaryItemStack;
 
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
@@ -64,6 +66,28 @@ public final class OutgoingMessage extends Message {
 		this.write(map.toJson(), String.class);
 	}
 
+	/**
+	 * Write the item into the message as compact binary, see {@link BinaryItemStack}
+	 *
+	 * Items whose NBT cannot be stored as such are rejected with an exception
+	 *
+	 * @param item
+	 */
+	public void writeItem(ItemStack item) {
+		this.write(item, ItemStack.class);
+	}
+
+	/**
+	 * Write the items into the message as compact binary, see {@link BinaryItemStack}
+	 *
+	 * Items whose NBT cannot be stored as such are rejected with an exception
+	 *
+	 * @param items
+	 */
+	public void writeItems(ItemStack[] items) {
+		this.write(items, ItemStack[].class);
+	}
+
 	/**
 	 * Write the given strings into the message
 	 *
@@ -214,6 +238,16 @@ public final class OutgoingMessage extends Message {
 			else if (object instanceof UUID)
 				out.writeUTF(object.toString());
 
+			else if (object instanceof ItemStack || object instanceof ItemStack[]) {
+				final ItemStack[] items = object instanceof ItemStack ? new ItemStack[] { (ItemStack) object } : (ItemStack[]) object;
+
+				// Receivers reject Bukkit serialized items, so fail here instead
+				final byte[] bytes = BinaryItemStack.toBytes(items, true, false);
+
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
 			else
 				throw new FoException("Unsupported write of " + object.getClass().getSimpleName() + " to channel " + this.getChannel() + " with action " + this.getAction().toString());
 
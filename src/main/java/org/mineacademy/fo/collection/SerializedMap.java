@@ -27,6 +27,7 @@ import org.mineacademy.fo.menu.model.ItemCreator;
 import org.mineacademy.fo.model.IsInList;
 import org.mineacademy.fo.model.Tuple;
 import org.mineacademy.fo.plugin.SimplePlugin;
+import org.mineacademy.fo.remain.BinaryItemStack;
 import org.mineacademy.fo.remain.CompMaterial;
 import org.mineacademy.fo.remain.Remain;
 import org.mineacademy.fo.settings.ConfigSection;
@@ -527,6 +528,9 @@ public final class SerializedMap extends StrictCollection implements Iterable<Ma
 		if (obj instanceof ItemStack)
 			return (ItemStack) obj;
 
+		if (BinaryItemStack.isBase64(obj))
+			return BinaryItemStack.fromBase64(obj.toString());
+
 		return ItemCreator.of(SerializedMap.of(obj)).make();
 	}
 
@@ -955,13 +959,25 @@ public final class SerializedMap extends StrictCollection implements Iterable<Ma
 	 * @return
 	 */
 	public String toJson() {
+		return this.toJson(Mode.JSON);
+	}
+
+	/**
+	 * Converts this map into a JSON string, use {@link Mode#BINARY} to store
+	 * items as compact strings, they are read back by {@link #fromJson(String)}
+	 *
+	 * @param mode
+	 * @return
+	 */
+	public String toJson(@NonNull Mode mode) {
+		Valid.checkBoolean(mode != Mode.YAML, "Cannot convert SerializedMap to JSON in YAML mode");
 
 		try {
 			final JSONObject jsonMap = new JSONObject();
 
 			for (final Map.Entry<String, Object> entry : this.map.entrySet()) {
-				final Object key = SerializeUtil.serialize(Mode.JSON, entry.getKey());
-				final Object value = SerializeUtil.serialize(Mode.JSON, entry.getValue());
+				final Object key = SerializeUtil.serialize(mode, entry.getKey());
+				final Object value = SerializeUtil.serialize(mode, entry.getValue());
 
 				if (key != null && value != null)
 					jsonMap.put(key.toString(), value);
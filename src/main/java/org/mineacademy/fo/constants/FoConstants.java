@@ -3,7 +3,9 @@ package org.mineacademy.fo.constants;
 import java.util.UUID;
 
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import org.mineacademy.fo.menu.Menu;
+import org.mineacademy.fo.menu.tool.Tool;
 import org.mineacademy.fo.plugin.SimplePlugin;
 
 /**
@@ -145,5 +147,13 @@ public final class FoConstants {
 		 * We use this in the sign update packet listener to handle sign updating.
 		 */
 		public static final String METADATA_OPENED_SIGN = SimplePlugin.getNamed() + "_OpenedSign";
+
+		/**
+		 * An internal NBT tag storing the tool ID on items given by tools.
+		 *
+		 * <p>
+		 * Used in {@link Tool#getTool(ItemStack)}
+		 */
+		public static final String TAG_TOOL = SimplePlugin.getNamed() + "_Tool";
 	}
 }
@@ -2,11 +2,15 @@ package org.mineacademy.fo.enchant;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.UUID;
 import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
@@ -17,16 +21,28 @@ import org.bukkit.ChatColor;
 import org.bukkit.NamespacedKey;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.entity.ProjectileHitEvent;
 import org.bukkit.event.entity.ProjectileLaunchEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerPickupItemEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.projectiles.ProjectileSource;
@@ -82,6 +98,40 @@ public abstract class SimpleEnchantment implements Listener {
 	 */
 	private static final StrictSet<SimpleEnchantment> registeredEnchantments = new StrictSet<>();
 
+	/**
+	 * Registered custom enchants by their namespaced key with the minecraft: prefix
+	 */
+	private static final Map<String, SimpleEnchantment> enchantmentsByKey = new HashMap<>();
+
+	/**
+	 * Registered custom enchants by their name, used for MC older than 1.13
+	 */
+	private static final Map<String, SimpleEnchantment> enchantmentsByName = new HashMap<>();
+
+	/**
+	 * Event methods overridden by any registered enchant, see {@link Hook}
+	 */
+	private static int registeredHooks = 0;
+
+	/**
+	 * How many rendered lores we remember, see {@link #renderedLores}
+	 */
+	private static final int RENDERED_LORES_LIMIT = 512;
+
+	/**
+	 * Custom enchant lores by the enchantments they were rendered from, least recently used first,
+	 * cleared when a new enchant is registered or the plugin reloads
+	 */
+	private static final Map<Map<Enchantment, Integer>, RenderedLore> renderedLores = new LinkedHashMap<Map<Enchantment, Integer>, RenderedLore>(16, 0.75F, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Map<Enchantment, Integer>, RenderedLore> eldest) {
+			return this.size() > RENDERED_LORES_LIMIT;
+		}
+	};
+
 	/**
 	 * The class that will be instantiated to wrap custom enchants.
 	 */
@@ -104,6 +154,11 @@ public abstract class SimpleEnchantment implements Listener {
 	 */
 	private final int maxLevel;
 
+	/**
+	 * Event methods this enchant overrides, see {@link Hook}
+	 */
+	private final int hooks;
+
 	/**
 	 * The actual handle injecting this enchant into Minecraft
 	 */
@@ -131,12 +186,18 @@ public abstract class SimpleEnchantment implements Listener {
 		this.namespacedName = namespacedName;
 		this.namespacedNameWithPrefix = "minecraft:" + this.namespacedName;
 		this.maxLevel = maxLevel;
+		this.hooks = Hook.findOverridden(this.getClass());
 
 		if (handleClass != null) {
 			this.handle = this.assignHandle();
 			this.handle.register();
 
 			registeredEnchantments.add(this);
+			enchantmentsByKey.put(this.namespacedNameWithPrefix, this);
+			enchantmentsByName.put(this.name, this);
+			registeredHooks |= this.hooks;
+
+			clearRenderedLores();
 		}
 	}
 
@@ -220,6 +281,9 @@ public abstract class SimpleEnchantment implements Listener {
 	 * <p>
 	 * We have to add item lore manually since Minecraft does not really support custom
 	 * enchantments
+	 * <p>
+	 * The lore is rendered once for each combination of enchants and levels and then reused,
+	 * so it must only depend on the level.
 	 *
 	 * @param level
 	 * @return
@@ -575,73 +639,146 @@ public abstract class SimpleEnchantment implements Listener {
 	 */
 	@Deprecated
 	public static ItemStack addEnchantmentLores(ItemStack item) {
-		final List<String> customEnchants = new ArrayList<>();
-
-		// Fill in our enchants
-		try {
-			for (final Map.Entry<Enchantment, Integer> entry : item.getEnchantments().entrySet()) {
-				final Enchantment enchantment = entry.getKey();
-				final SimpleEnchantment simpleEnchantment = fromBukkit(enchantment);
+		if (registeredEnchantments.isEmpty())
+			return null;
 
-				if (simpleEnchantment != null) {
-					final String lore = simpleEnchantment.getLore(entry.getValue());
+		final Map<Enchantment, Integer> enchantments;
 
-					if (lore != null && !lore.isEmpty())
-						customEnchants.add(Common.colorize("&r&7" + lore));
-				}
-			}
+		try {
+			enchantments = item.getEnchantments();
 
 		} catch (final NullPointerException ex) {
 			// Some weird problem in third party plugin
+			return null;
 		}
 
-		if (!customEnchants.isEmpty()) {
-			final ItemMeta meta = Remain.hasItemMeta() && item.hasItemMeta() ? item.getItemMeta() : Bukkit.getItemFactory().getItemMeta(item.getType());
-			final List<String> originalLore = meta.hasLore() ? meta.getLore() : new ArrayList<>();
-			final List<String> finalLore = new ArrayList<>();
+		if (enchantments.isEmpty())
+			return null;
 
-			final List<String> colorlessOriginals = new ArrayList<>();
+		final RenderedLore rendered = renderLore(enchantments);
 
-			for (final String original : originalLore)
-				colorlessOriginals.add(ChatColor.stripColor(Common.colorize(original)));
+		if (rendered.lines.length == 0)
+			return null;
 
-			// Place our enchants
-			for (final String customEnchant : customEnchants) {
-				final String colorlessEnchant = ChatColor.stripColor(Common.colorize(customEnchant));
+		final ItemMeta meta = Remain.hasItemMeta() && item.hasItemMeta() ? item.getItemMeta() : Bukkit.getItemFactory().getItemMeta(item.getType());
+		final List<String> originalLore = meta.hasLore() ? meta.getLore() : new ArrayList<>();
+		final List<String> finalLore = new ArrayList<>(rendered.lines.length + originalLore.size());
+		final Set<String> colorlessOriginals = new HashSet<>(originalLore.size());
 
-				if (!colorlessOriginals.contains(colorlessEnchant))
-					finalLore.add(customEnchant);
-			}
+		for (final String original : originalLore)
+			colorlessOriginals.add(ChatColor.stripColor(Common.colorize(original)));
 
-			// Place the original lore at the bottom
-			finalLore.addAll(originalLore);
+		// Place our enchants unless already there
+		for (int i = 0; i < rendered.lines.length; i++)
+			if (!colorlessOriginals.contains(rendered.colorlessLines[i]))
+				finalLore.add(rendered.lines[i]);
 
-			// Set the lore
-			meta.setLore(finalLore);
+		// Place the original lore at the bottom
+		finalLore.addAll(originalLore);
 
-			// Update the item stack
-			item.setItemMeta(meta);
+		// Set the lore
+		meta.setLore(finalLore);
 
-			return item;
+		// Update the item stack
+		item.setItemMeta(meta);
+
+		return item;
+	}
+
+	/*
+	 * Return the lore lines for custom enchants among the given ones, rendering them only once
+	 * for each distinct combination of enchantments and levels
+	 */
+	private static RenderedLore renderLore(Map<Enchantment, Integer> enchantments) {
+		RenderedLore rendered;
+
+		synchronized (renderedLores) {
+			rendered = renderedLores.get(enchantments);
 		}
 
-		return null;
+		if (rendered == null) {
+			final List<String> lines = new ArrayList<>();
+
+			for (final Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+				final SimpleEnchantment simpleEnchantment = fromBukkit(entry.getKey());
+
+				if (simpleEnchantment != null) {
+					final String lore = simpleEnchantment.getLore(entry.getValue());
+
+					if (lore != null && !lore.isEmpty())
+						lines.add(Common.colorize("&r&7" + lore));
+				}
+			}
+
+			rendered = new RenderedLore(lines.toArray(new String[lines.size()]));
+
+			synchronized (renderedLores) {
+				renderedLores.put(new HashMap<>(enchantments), rendered);
+			}
+		}
+
+		return rendered;
+	}
+
+	/**
+	 * Return custom enchantments on the item in the player's hand.
+	 * <p>
+	 * The result is cached until the player's inventory changes, call {@link #invalidateEquipmentCache(Player)}
+	 * after you edit their items without firing an event.
+	 *
+	 * @param player
+	 * @return
+	 */
+	public static Map<SimpleEnchantment, Integer> findHandEnchantments(@NonNull Player player) {
+		return Listener.instance.getEquipment(player).getHand();
+	}
+
+	/**
+	 * Return custom enchantments on the armor the player wears with their highest level.
+	 * <p>
+	 * The result is cached until the player's inventory changes, call {@link #invalidateEquipmentCache(Player)}
+	 * after you edit their items without firing an event.
+	 *
+	 * @param player
+	 * @return
+	 */
+	public static Map<SimpleEnchantment, Integer> findArmorEnchantments(@NonNull Player player) {
+		return Listener.instance.getEquipment(player).getArmor();
+	}
+
+	/**
+	 * Forget cached enchantments of the player's hand and armor items
+	 *
+	 * @param player
+	 */
+	public static void invalidateEquipmentCache(@NonNull Player player) {
+		Listener.instance.invalidate(player);
+	}
+
+	/**
+	 * Forget rendered enchantment lores so that {@link #getLore(int)} is called again,
+	 * such as when reloading localization
+	 */
+	public static void clearRenderedLores() {
+		synchronized (renderedLores) {
+			renderedLores.clear();
+		}
 	}
 
 	private static SimpleEnchantment fromBukkit(Enchantment bukkitEnchantment) {
+		if (registeredEnchantments.isEmpty())
+			return null;
+
 		if (hasNamespacedKeys) {
-			final String key = bukkitEnchantment.getKey().getNamespace() + ":" + bukkitEnchantment.getKey().getKey();
+			final NamespacedKey key = bukkitEnchantment.getKey();
 
-			for (final SimpleEnchantment simpleEnchantment : registeredEnchantments)
-				if (simpleEnchantment.namespacedNameWithPrefix.equals(key))
-					return simpleEnchantment;
+			return enchantmentsByKey.get(key.getNamespace() + ":" + key.getKey());
 
 		} else {
-			final String name = bukkitEnchantment.getName();
+			final SimpleEnchantment byName = enchantmentsByName.get(bukkitEnchantment.getName());
 
-			for (final SimpleEnchantment simpleEnchantment : registeredEnchantments)
-				if (simpleEnchantment.name.equals(name))
-					return simpleEnchantment;
+			if (byName != null)
+				return byName;
 
 			try {
 				final int id = ReflectionUtil.invoke("getId", bukkitEnchantment);
@@ -658,6 +795,126 @@ public abstract class SimpleEnchantment implements Listener {
 		return null;
 	}
 
+	/*
+	 * The event methods an enchant can override, resolved once when created
+	 * so that events are only dispatched to enchants handling them
+	 */
+	private enum Hook {
+		DAMAGE("onDamage", int.class, LivingEntity.class, EntityDamageByEntityEvent.class),
+		INTERACT("onInteract", int.class, PlayerInteractEvent.class),
+		BREAK_BLOCK("onBreakBlock", int.class, BlockBreakEvent.class),
+		SHOOT("onShoot", int.class, LivingEntity.class, ProjectileLaunchEvent.class),
+		HIT("onHit", int.class, LivingEntity.class, ProjectileHitEvent.class);
+
+		private final String methodName;
+		private final Class<?>[] parameters;
+
+		Hook(String methodName, Class<?>... parameters) {
+			this.methodName = methodName;
+			this.parameters = parameters;
+		}
+
+		private int mask() {
+			return 1 << this.ordinal();
+		}
+
+		/*
+		 * Return true if any registered enchant overrides this hook
+		 */
+		private boolean isRegistered() {
+			return (registeredHooks & this.mask()) != 0;
+		}
+
+		/*
+		 * Return true if the given enchant overrides this hook
+		 */
+		private boolean isHandledBy(SimpleEnchantment enchantment) {
+			return (enchantment.hooks & this.mask()) != 0;
+		}
+
+		/*
+		 * Return the mask of hooks the given enchant class or its parents override
+		 */
+		private static int findOverridden(Class<?> enchantClass) {
+			int mask = 0;
+
+			for (final Hook hook : values())
+				for (Class<?> clazz = enchantClass; clazz != null && clazz != SimpleEnchantment.class; clazz = clazz.getSuperclass())
+					try {
+						clazz.getDeclaredMethod(hook.methodName, hook.parameters);
+
+						mask |= hook.mask();
+						break;
+
+					} catch (final NoSuchMethodException ex) {
+						// Not overridden here, check the parent
+					}
+
+			return mask;
+		}
+	}
+
+	/*
+	 * Lore lines of custom enchants, rendered once
+	 */
+	private static final class RenderedLore {
+
+		private final String[] lines;
+		private final String[] colorlessLines;
+
+		private RenderedLore(String[] lines) {
+			this.lines = lines;
+			this.colorlessLines = new String[lines.length];
+
+			for (int i = 0; i < lines.length; i++)
+				this.colorlessLines[i] = ChatColor.stripColor(lines[i]);
+		}
+	}
+
+	/*
+	 * Custom enchants on the hand and armor items of a player, armor is only found when asked for
+	 */
+	private static final class Equipment {
+
+		/*
+		 * How long we trust the cache if no inventory event arrives, covers plugins
+		 * editing items without firing events
+		 */
+		private static final long EXPIRATION_MILLIS = 1000;
+
+		private final Player player;
+		private final long created = System.currentTimeMillis();
+
+		@Getter
+		private final Map<SimpleEnchantment, Integer> hand;
+
+		private Map<SimpleEnchantment, Integer> armor;
+
+		private Equipment(Player player) {
+			this.player = player;
+			this.hand = Collections.unmodifiableMap(findEnchantments(player.getItemInHand()));
+		}
+
+		private Map<SimpleEnchantment, Integer> getArmor() {
+			if (this.armor == null) {
+				final Map<SimpleEnchantment, Integer> armor = new HashMap<>();
+
+				for (final ItemStack item : this.player.getInventory().getArmorContents())
+					if (item != null)
+						for (final Entry<SimpleEnchantment, Integer> entry : findEnchantments(item).entrySet())
+							armor.merge(entry.getKey(), entry.getValue(), Math::max);
+
+				this.armor = Collections.unmodifiableMap(armor);
+			}
+
+			return this.armor;
+		}
+
+		private boolean isExpired() {
+			return System.currentTimeMillis() - this.created > EXPIRATION_MILLIS;
+		}
+	}
+
 	/**
 	 * A wrapper for 1.20.5+ cost handling
 	 */
@@ -688,37 +945,47 @@ public abstract class SimpleEnchantment implements Listener {
 		@Getter
 		private static final Listener instance = new Listener();
 
+		/**
+		 * Cached custom enchants of online players
+		 */
+		private final Map<UUID, Equipment> equipment = new HashMap<>();
+
 		@EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
 		public void onEntityDamage(EntityDamageByEntityEvent event) {
 			final Entity damager = event.getDamager();
 
 			if (damager instanceof LivingEntity)
-				this.execute((LivingEntity) damager, (enchant, level) -> enchant.onDamage(level, (LivingEntity) damager, event));
+				this.execute((LivingEntity) damager, Hook.DAMAGE, (enchant, level) -> enchant.onDamage(level, (LivingEntity) damager, event));
 		}
 
 		@EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
 		public void onInteract(PlayerInteractEvent event) {
-			if (!Remain.isInteractEventPrimaryHand(event))
+			if (!Hook.INTERACT.isRegistered() || !Remain.isInteractEventPrimaryHand(event))
 				return;
 
-			this.execute(event.getPlayer(), (enchant, level) -> enchant.onInteract(level, event));
+			this.execute(event.getPlayer(), Hook.INTERACT, (enchant, level) -> enchant.onInteract(level, event));
 		}
 
 		@EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
 		public void onBreakBlock(BlockBreakEvent event) {
-			this.execute(event.getPlayer(), (enchant, level) -> enchant.onBreakBlock(level, event));
+			this.execute(event.getPlayer(), Hook.BREAK_BLOCK, (enchant, level) -> enchant.onBreakBlock(level, event));
 		}
 
 		@EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
 		public void onShoot(ProjectileLaunchEvent event) {
+			if (!Hook.SHOOT.isRegistered() && !Hook.HIT.isRegistered())
+				return;
+
 			try {
 				final ProjectileSource projectileSource = event.getEntity().getShooter();
 
 				if (projectileSource instanceof LivingEntity) {
 					final LivingEntity shooter = (LivingEntity) projectileSource;
 
-					this.execute(shooter, (enchant, level) -> enchant.onShoot(level, shooter, event));
-					EntityUtil.trackHit(event.getEntity(), hitEvent -> this.execute(shooter, (enchant, level) -> enchant.onHit(level, shooter, hitEvent)));
+					this.execute(shooter, Hook.SHOOT, (enchant, level) -> enchant.onShoot(level, shooter, event));
+
+					if (Hook.HIT.isRegistered())
+						EntityUtil.trackHit(event.getEntity(), hitEvent -> this.execute(shooter, Hook.HIT, (enchant, level) -> enchant.onHit(level, shooter, hitEvent)));
 				}
 			} catch (final NoSuchMethodError ex) {
 				if (MinecraftVersion.atLeast(V.v1_4))
@@ -726,12 +993,80 @@ public abstract class SimpleEnchantment implements Listener {
 			}
 		}
 
-		private void execute(LivingEntity source, BiConsumer<SimpleEnchantment, Integer> executer) {
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onItemHeld(PlayerItemHeldEvent event) {
+			this.invalidate(event.getPlayer());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onInventoryClick(InventoryClickEvent event) {
+			this.invalidate(event.getWhoClicked());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onInventoryDrag(InventoryDragEvent event) {
+			this.invalidate(event.getWhoClicked());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onDrop(PlayerDropItemEvent event) {
+			this.invalidate(event.getPlayer());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onPickup(PlayerPickupItemEvent event) {
+			this.invalidate(event.getPlayer());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onItemBreak(PlayerItemBreakEvent event) {
+			this.invalidate(event.getPlayer());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onDeath(PlayerDeathEvent event) {
+			this.invalidate(event.getEntity());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onBlockPlace(BlockPlaceEvent event) {
+			this.invalidate(event.getPlayer());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR)
+		public void onItemConsume(PlayerItemConsumeEvent event) {
+			this.invalidate(event.getPlayer());
+		}
+
+		@EventHandler
+		public void onQuit(PlayerQuitEvent event) {
+			this.invalidate(event.getPlayer());
+		}
+
+		/*
+		 * Run the executer for enchants on the hand item of the source handling the given hook
+		 */
+		private void execute(LivingEntity source, Hook hook, BiConsumer<SimpleEnchantment, Integer> executer) {
+			if (!hook.isRegistered())
+				return;
+
 			try {
-				final ItemStack hand = source instanceof Player ? ((Player) source).getItemInHand() : source.getEquipment().getItemInHand();
+				final Map<SimpleEnchantment, Integer> enchantments;
+
+				if (source instanceof Player)
+					enchantments = this.getEquipment((Player) source).getHand();
+
+				else {
+					final ItemStack hand = source.getEquipment().getItemInHand();
 
-				if (hand != null)
-					for (final Entry<SimpleEnchantment, Integer> e : SimpleEnchantment.findEnchantments(hand).entrySet())
+					if (hand == null)
+						return;
+
+					enchantments = SimpleEnchantment.findEnchantments(hand);
+				}
+
+				for (final Entry<SimpleEnchantment, Integer> e : enchantments.entrySet())
+					if (hook.isHandledBy(e.getKey()))
 						executer.accept(e.getKey(), e.getValue());
 
 			} catch (final NoSuchMethodError ex) {
@@ -739,6 +1074,52 @@ public abstract class SimpleEnchantment implements Listener {
 					ex.printStackTrace();
 			}
 		}
+
+		/*
+		 * Return the cached custom enchants of the player, finding them if missing or expired
+		 */
+		private Equipment getEquipment(Player player) {
+			Equipment cached = this.equipment.get(player.getUniqueId());
+
+			if (cached == null || cached.isExpired()) {
+				cached = new Equipment(player);
+
+				this.equipment.put(player.getUniqueId(), cached);
+			}
+
+			return cached;
+		}
+
+		/*
+		 * Forget the cached enchants of the player
+		 */
+		private void invalidate(HumanEntity player) {
+			this.equipment.remove(player.getUniqueId());
+		}
+
+		/**
+		 * Register listeners for events missing on older Minecraft versions
+		 */
+		public void registerOptionalListeners() {
+			try {
+				Class.forName("org.bukkit.event.player.PlayerSwapHandItemsEvent");
+
+				Common.registerEvents(new OffHandListener());
+			} catch (final Throwable t) {
+				// Legacy MC
+			}
+		}
+
+		/*
+		 * Forgets cached enchants when items are swapped between hands, MC 1.9+
+		 */
+		private static final class OffHandListener implements org.bukkit.event.Listener {
+
+			@EventHandler(priority = EventPriority.MONITOR)
+			public void onSwapItems(PlayerSwapHandItemsEvent event) {
+				instance.invalidate(event.getPlayer());
+			}
+		}
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package org.mineacademy.fo.event;
+
+import org.bukkit.World;
+import org.bukkit.event.HandlerList;
+import org.mineacademy.fo.model.OfflineRegionScanner;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triggered when {@link OfflineRegionScanner} finishes scanning a region file.
+ *
+ * In async mode this event is fired from the scanner worker threads.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class RegionScanProgressEvent extends SimpleEvent {
+
+	private static final HandlerList handlers = new HandlerList();
+
+	/**
+	 * The world this scanner operates in
+	 */
+	private final World world;
+
+	/**
+	 * The name of the region file that was just scanned
+	 */
+	private final String fileName;
+
+	/**
+	 * How many region files have been scanned, including those finished before the scan was resumed
+	 */
+	private final int processedFiles;
+
+	/**
+	 * The total amount of region files in the world
+	 */
+	private final int totalFiles;
+
+	/**
+	 * Return the scan progress from 0 to 100
+	 *
+	 * @return
+	 */
+	public int getPercent() {
+		return this.totalFiles == 0 ? 100 : (int) Math.round((double) this.processedFiles / this.totalFiles * 100);
+	}
+
+	@Override
+	public HandlerList getHandlers() {
+		return handlers;
+	}
+
+	public static HandlerList getHandlerList() {
+		return handlers;
+	}
+}
@@ -1,12 +1,18 @@
 package org.mineacademy.fo.menu;
 
 import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
@@ -17,7 +23,7 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.metadata.FixedMetadataValue;
 import org.mineacademy.fo.Common;
-import org.mineacademy.fo.ItemUtil;
+import org.mineacademy.fo.ItemUtil.SimilarityKey;
 import org.mineacademy.fo.Messenger;
 import org.mineacademy.fo.MinecraftVersion;
 import org.mineacademy.fo.MinecraftVersion.V;
@@ -37,13 +43,13 @@ import org.mineacademy.fo.menu.button.annotation.Position;
 import org.mineacademy.fo.menu.model.InventoryDrawer;
 import org.mineacademy.fo.menu.model.ItemCreator;
 import org.mineacademy.fo.menu.model.MenuClickLocation;
-import org.mineacademy.fo.model.SimpleRunnable;
 import org.mineacademy.fo.model.SimpleSound;
 import org.mineacademy.fo.plugin.SimplePlugin;
 import org.mineacademy.fo.remain.CompMaterial;
 import org.mineacademy.fo.remain.CompSound;
 import org.mineacademy.fo.remain.Remain;
 import org.mineacademy.fo.settings.SimpleLocalization;
+import org.mineacademy.fo.slider.Slider;
 
 import lombok.Getter;
 import lombok.NonNull;
@@ -99,6 +105,11 @@ public abstract class Menu {
 	 */
 	protected static final ItemStack NO_ITEM = null;
 
+	/**
+	 * The button fields of each menu class, scanned once per class
+	 */
+	private static final Map<Class<?>, ButtonField[]> buttonFields = new ConcurrentHashMap<>();
+
 	// --------------------------------------------------------------------------------
 	// Actual class
 	// --------------------------------------------------------------------------------
@@ -109,6 +120,31 @@ public abstract class Menu {
 	private final Map<Button, Position> registeredButtons = new HashMap<>();
 	private final Map<Integer, Button> registeredButtonPositions = new HashMap<>();
 
+	/**
+	 * Buttons by the slot they occupy, used when clicking, null when it needs to be rebuilt
+	 */
+	private Button[] slotButtons;
+
+	/**
+	 * Buttons with {@link Button#isSlotDynamic()}, their slot is checked on each click
+	 */
+	private final List<Button> dynamicSlotButtons = new ArrayList<>();
+
+	/**
+	 * Buttons without a slot or a position, which can only be found by their item
+	 */
+	private final List<Button> unpositionedButtons = new ArrayList<>();
+
+	/**
+	 * The items we last put into each slot of the open inventory, null if unknown
+	 */
+	private ItemStack[] renderedItems;
+
+	/**
+	 * The hash codes of {@link #renderedItems}, compared first so unchanged slots are skipped quickly
+	 */
+	private int[] renderedFingerprints;
+
 	/**
 	 * A list of manually registered buttons, in case you do not want to store them as fields.
 	 */
@@ -312,31 +348,50 @@ public abstract class Menu {
 
 		// Register buttons declared as fields
 		{
-			Class<?> lookup = this.getClass();
+			for (final ButtonField field : buttonFields.computeIfAbsent(this.getClass(), Menu::scanButtonFields)) {
+				final Button button = field.get(this);
 
-			do
-				for (final Field f : lookup.getDeclaredFields())
-					this.registerButton0(f);
-			while (Menu.class.isAssignableFrom(lookup = lookup.getSuperclass()));
+				Valid.checkNotNull(button, "Null button field named " + field.name + " in " + this);
+				this.registeredButtons.put(button, field.position);
+			}
 		}
+
+		this.slotButtons = null;
 	}
 
-	// Scans the class and register fields that extend Button class
-	private void registerButton0(final Field field) {
-		field.setAccessible(true);
+	/*
+	 * Scans the menu class and its menu parents for fields that extend Button class
+	 */
+	private static ButtonField[] scanButtonFields(final Class<?> menuClass) {
+		final List<ButtonField> fields = new ArrayList<>();
+		Class<?> lookup = menuClass;
+
+		do
+			for (final Field field : lookup.getDeclaredFields()) {
+				final Class<?> type = field.getType();
+
+				if (Button.class.isAssignableFrom(type)) {
+					field.setAccessible(true);
 
-		final Class<?> type = field.getType();
+					try {
+						MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
 
-		if (Button.class.isAssignableFrom(type)) {
-			final Button button = (Button) ReflectionUtil.getFieldContent(field, this);
+						// Static getters take no menu, accept and ignore it so all getters have the same type
+						if (Modifier.isStatic(field.getModifiers()))
+							getter = MethodHandles.dropArguments(getter, 0, Menu.class);
 
-			Valid.checkNotNull(button, "Null button field named " + field.getName() + " in " + this);
-			final Position position = field.getAnnotation(Position.class);
+						fields.add(new ButtonField(field.getName(), getter.asType(MethodType.methodType(Button.class, Menu.class)), field.getAnnotation(Position.class)));
 
-			this.registeredButtons.put(button, position);
+					} catch (final IllegalAccessException ex) {
+						throw new FoException(ex, "Cannot access button field " + field.getName() + " in " + menuClass);
+					}
 
-		} else if (Button[].class.isAssignableFrom(type))
-			throw new FoException("Button[] is no longer supported in menu for " + this.getClass());
+				} else if (Button[].class.isAssignableFrom(type))
+					throw new FoException("Button[] is no longer supported in menu for " + menuClass);
+			}
+		while (Menu.class.isAssignableFrom(lookup = lookup.getSuperclass()));
+
+		return fields.toArray(new ButtonField[fields.size()]);
 	}
 
 	/*
@@ -378,15 +433,17 @@ public abstract class Menu {
 	protected final Button getButton(final ItemStack fromItem) {
 		this.registerButtonsIfHasnt();
 
-		for (final Map.Entry<Button, Position> entry : this.registeredButtons.entrySet()) {
-			final Button button = entry.getKey();
-			final Position position = entry.getValue();
+		if (this.slotButtons == null)
+			this.updateButtonSlots();
 
-			Valid.checkNotNull(button, "Menu button is null at " + this.getClass().getSimpleName());
+		if (fromItem == null)
+			return null;
+
+		final SimilarityKey key = SimilarityKey.of(fromItem);
 
-			if (position == null && button.getSlot() == -1 && ItemUtil.isSimilar(fromItem, button.getItem()))
+		for (final Button button : this.unpositionedButtons)
+			if (button.getSlot() == -1 && key.matches(button.getItem()))
 				return button;
-		}
 
 		return null;
 	}
@@ -401,15 +458,53 @@ public abstract class Menu {
 	protected final Button getButton(final int slot) {
 		this.registerButtonsIfHasnt();
 
-		// Cannot put Button#getSlot into registeredButtonPositions because it can be dynamically set each time the menu is opened
-		for (final Button button : this.registeredButtons.keySet()) {
-			Valid.checkNotNull(button, "Menu button is null at " + this.getClass().getSimpleName());
+		if (this.slotButtons == null)
+			this.updateButtonSlots();
 
+		for (final Button button : this.dynamicSlotButtons)
 			if (button.getSlot() != -1 && button.getSlot() == slot)
 				return button;
+
+		return slot >= 0 && slot < this.slotButtons.length ? this.slotButtons[slot] : null;
+	}
+
+	/**
+	 * Rebuilds the slot to button lookup used when the menu is clicked.
+	 *
+	 * This is done automatically each time the menu is drawn, only call this if you change
+	 * {@link Button#getSlot()} of a button without a dynamic slot and do not redraw the menu.
+	 */
+	protected final void updateButtonSlots() {
+		final Button[] slotButtons = new Button[this.size != null ? this.size : 0];
+
+		this.dynamicSlotButtons.clear();
+		this.unpositionedButtons.clear();
+
+		for (final Map.Entry<Integer, Button> entry : this.registeredButtonPositions.entrySet()) {
+			final int slot = entry.getKey();
+
+			if (slot >= 0 && slot < slotButtons.length)
+				slotButtons[slot] = entry.getValue();
 		}
 
-		return this.registeredButtonPositions.get(slot);
+		// Buttons with a slot take priority over positions
+		for (final Map.Entry<Button, Position> entry : this.registeredButtons.entrySet()) {
+			final Button button = entry.getKey();
+			Valid.checkNotNull(button, "Menu button is null at " + this.getClass().getSimpleName());
+
+			final int slot = button.getSlot();
+
+			if (button.isSlotDynamic())
+				this.dynamicSlotButtons.add(button);
+
+			else if (slot >= 0 && slot < slotButtons.length)
+				slotButtons[slot] = button;
+
+			if (entry.getValue() == null && (slot == -1 || button.isSlotDynamic()))
+				this.unpositionedButtons.add(button);
+		}
+
+		this.slotButtons = slotButtons;
 	}
 
 	/**
@@ -526,6 +621,11 @@ public abstract class Menu {
 
 			player.setMetadata(FoConstants.NBT.TAG_MENU_CURRENT, new FixedMetadataValue(SimplePlugin.getInstance(), Menu.this));
 
+			this.forgetRenderedItems();
+
+			for (int slot = 0; slot < drawer.getSize(); slot++)
+				this.rememberRenderedItem(slot, drawer.getItem(slot));
+
 			this.opened = true;
 			this.onPostDisplay(player);
 		});
@@ -617,7 +717,9 @@ public abstract class Menu {
 		this.compileItems().forEach((slot, item) -> drawer.setItem(slot, item));
 		this.onPreDisplay(drawer);
 
-		drawer.display(player);
+		// Only write slots whose item has changed since the last draw
+		for (int slot = 0; slot < drawer.getSize(); slot++)
+			this.drawItem(inventory, slot, drawer.getItem(slot));
 
 		this.onPostDisplay(player);
 
@@ -626,22 +728,126 @@ public abstract class Menu {
 	}
 
 	/**
-	 * Redraws buttons registered using {@link Position} annotation or having {@link Button#getSlot()} set
+	 * Redraws buttons registered using {@link Position} annotation or having {@link Button#getSlot()} set,
+	 * only updating slots whose item has changed
 	 */
 	public void redrawButtons() {
+		final Inventory inventory = this.getInventory();
 
 		// Redraw positions
 		for (final Map.Entry<Integer, Button> entry : this.registeredButtonPositions.entrySet()) {
 			final int slot = entry.getKey();
 			final Button button = entry.getValue();
 
-			this.setItem(slot, button.getItem());
+			this.drawItem(inventory, slot, button.getItem());
 		}
 
 		// Redraw slots
 		for (final Button button : this.registeredButtons.keySet())
 			if (button.getSlot() != -1)
-				this.setItem(button.getSlot(), button.getItem());
+				this.drawItem(inventory, button.getSlot(), button.getItem());
+	}
+
+	/**
+	 * Redraws the given button registered using {@link Position} annotation or having {@link Button#getSlot()} set,
+	 * if its item has changed
+	 *
+	 * @param button
+	 */
+	public final void redrawButton(@NonNull final Button button) {
+		final Inventory inventory = this.getInventory();
+
+		if (button.getSlot() != -1)
+			this.drawItem(inventory, button.getSlot(), button.getItem());
+
+		else
+			for (final Map.Entry<Integer, Button> entry : this.registeredButtonPositions.entrySet())
+				if (entry.getValue() == button)
+					this.drawItem(inventory, entry.getKey(), button.getItem());
+	}
+
+	/**
+	 * Redraws the given slots from the buttons on them or {@link #getItemAt(int)},
+	 * only updating slots whose item has changed
+	 *
+	 * @param slots
+	 */
+	public final void redrawSlots(final int... slots) {
+		final Inventory inventory = this.getInventory();
+
+		for (final int slot : slots)
+			this.drawItem(inventory, slot, this.compileItem(slot));
+	}
+
+	/**
+	 * Redraws the given slots from the buttons on them or {@link #getItemAt(int)},
+	 * only updating slots whose item has changed
+	 *
+	 * @param slots
+	 */
+	public final void redrawSlots(@NonNull final Iterable<Integer> slots) {
+		final Inventory inventory = this.getInventory();
+
+		for (final int slot : slots)
+			this.drawItem(inventory, slot, this.compileItem(slot));
+	}
+
+	/*
+	 * Put the item into the inventory unless it is the same as the one we last put there
+	 */
+	private void drawItem(final Inventory inventory, final int slot, ItemStack item) {
+		if (item != null && CompMaterial.isAir(item))
+			item = null;
+
+		final int fingerprint = item == null ? 0 : item.hashCode();
+
+		if (this.renderedItems != null && slot < this.renderedItems.length
+				&& this.renderedFingerprints[slot] == fingerprint && Objects.equals(this.renderedItems[slot], item))
+			return;
+
+		inventory.setItem(slot, item);
+		this.rememberRenderedItem(slot, item);
+	}
+
+	/*
+	 * Store the item as the one shown in the slot
+	 */
+	private void rememberRenderedItem(final int slot, final ItemStack item) {
+		final int size = this.size != null ? this.size : 0;
+
+		if (slot < 0 || slot >= size)
+			return;
+
+		if (this.renderedItems == null || this.renderedItems.length != size) {
+			this.renderedItems = new ItemStack[size];
+			this.renderedFingerprints = new int[size];
+
+			// Slots we do not know yet must never be skipped
+			Arrays.fill(this.renderedFingerprints, -1);
+		}
+
+		final boolean empty = item == null || CompMaterial.isAir(item);
+
+		// Copy so that buttons mutating and returning the same item are still seen as changed
+		this.renderedItems[slot] = empty ? null : item.clone();
+		this.renderedFingerprints[slot] = empty ? 0 : item.hashCode();
+	}
+
+	/**
+	 * Forget what items were drawn, so that the next redraw updates all slots.
+	 *
+	 * Called automatically when the player changes the items in this menu.
+	 */
+	protected final void forgetRenderedItems() {
+		this.renderedItems = null;
+		this.renderedFingerprints = null;
+	}
+
+	/*
+	 * Return true if the viewer still sees this menu
+	 */
+	final boolean isOpened() {
+		return this.opened;
 	}
 
 	/*
@@ -650,12 +856,44 @@ public abstract class Menu {
 	void onRestartInternal() {
 	}
 
+	/*
+	 * Internal hook after the menu is closed
+	 */
+	void onCloseInternal() {
+	}
+
 	/**
 	 * Called automatically when a menu is restarted. Called before getItemAt() and after registerButtons()
 	 */
 	public void onRestart() {
 	}
 
+	/*
+	 * Return the item at the given slot with the same priority as compileItems, without
+	 * compiling other slots, the menu must have been drawn before
+	 */
+	private ItemStack compileItem(final int slot) {
+		final boolean hasReturnButton = this.addReturnButton() && !(this.returnButton instanceof DummyButton);
+
+		if (hasReturnButton && slot == this.getReturnButtonPosition())
+			return this.returnButton.getItem();
+
+		if (this.addInfoButton() && this.getInfo() != null && slot == this.getInfoButtonPosition())
+			return Button.makeInfo(this.getInfo()).getItem();
+
+		if (this instanceof MenuQuantitable && slot == ((MenuQuantitable) this).getQuantityButtonPosition())
+			return this.quantityButton.getItem();
+
+		final Button button = this.getButton(slot);
+
+		if (button != null)
+			return button.getItem();
+
+		final ItemStack item = this.getItemAt(slot);
+
+		return item != null && CompMaterial.isAir(item) ? null : item;
+	}
+
 	/**
 	 * Draws the bottom bar for the player inventory
 	 *
@@ -725,6 +963,8 @@ public abstract class Menu {
 				items.put(this.getReturnButtonPosition(), this.returnButton.getItem());
 		}
 
+		this.updateButtonSlots();
+
 		return items;
 
 	}
@@ -817,7 +1057,7 @@ public abstract class Menu {
 	 * Start a repetitive task with the given period in ticks on the main thread,
 	 * that is automatically stopped if the viewer no longer sees this menu.
 	 *
-	 * Can impose a performance penalty. Use cancel() to cancel.
+	 * All menu animations share a single timer. Use cancel() to cancel.
 	 *
 	 * IMPORTANT TIPS:
 	 *
@@ -834,7 +1074,7 @@ public abstract class Menu {
 	protected final void animate(final int periodTicks, final MenuRunnable task) {
 		Valid.checkNotNull(this.viewer, "Cannot call animate() before the menu is shown, call your method in onDisplay() method instead.");
 
-		Common.runTimer(2, periodTicks, this.wrapAnimation(task));
+		MenuTicker.register(this, periodTicks, task, false);
 	}
 
 	/**
@@ -858,36 +1098,25 @@ public abstract class Menu {
 	protected final void animateAsync(final int periodTicks, final MenuRunnable task) {
 		Valid.checkNotNull(this.viewer, "Cannot call animate() before the menu is shown, call your method in onDisplay() method instead.");
 
-		Common.runTimerAsync(2, periodTicks, this.wrapAnimation(task));
+		MenuTicker.register(this, periodTicks, task, true);
 	}
 
-	/*
-	 * Helper method to create a bukkit runnable
+	/**
+	 * Start drawing the next frame of the given slider into this menu each period ticks
+	 * on the main thread, only updating slots whose item has changed since the last frame.
+	 *
+	 * Stopped automatically when the viewer no longer sees this menu.
+	 *
+	 * @param periodTicks
+	 * @param slider
 	 */
-	private SimpleRunnable wrapAnimation(final MenuRunnable task) {
-		return new SimpleRunnable() {
-			boolean canceled = false;
-
-			@Override
-			public void run() {
-
-				if (!Menu.this.opened) {
-					if (!this.canceled)
-						this.cancel();
+	protected final void animateSlider(final int periodTicks, @NonNull final Slider<Map<Integer, ItemStack>> slider) {
+		this.animate(periodTicks, () -> {
+			final Inventory inventory = this.getInventory();
 
-					return;
-				}
-
-				try {
-					task.run();
-
-				} catch (final EventHandledException ex) {
-					this.canceled = true;
-
-					this.cancel();
-				}
-			}
-		};
+			for (final Map.Entry<Integer, ItemStack> entry : slider.next().entrySet())
+				this.drawItem(inventory, entry.getKey(), entry.getValue());
+		});
 	}
 
 	/**
@@ -1059,6 +1288,7 @@ public abstract class Menu {
 	 */
 	protected final void setSize(final Integer size) {
 		this.size = size;
+		this.slotButtons = null;
 	}
 
 	/**
@@ -1138,6 +1368,7 @@ public abstract class Menu {
 		final Inventory inventory = this.getInventory();
 
 		inventory.setItem(slot, item);
+		this.rememberRenderedItem(slot, item);
 	}
 
 	/**
@@ -1227,8 +1458,12 @@ public abstract class Menu {
 		this.viewer.removeMetadata(FoConstants.NBT.TAG_MENU_CURRENT, SimplePlugin.getInstance());
 		this.viewer.setMetadata(FoConstants.NBT.TAG_MENU_LAST_CLOSED, new FixedMetadataValue(SimplePlugin.getInstance(), this));
 		this.opened = false;
+		this.forgetRenderedItems();
+
+		MenuTicker.unregister(this);
 
 		this.onMenuClose(this.viewer, inventory);
+		this.onCloseInternal();
 
 		// End by calling API
 		Common.callEvent(new MenuCloseEvent(this, inventory, this.viewer));
@@ -1247,4 +1482,29 @@ public abstract class Menu {
 	public String toString() {
 		return this.getClass().getSimpleName() + "{}";
 	}
+
+	/*
+	 * A cached button field with its position annotation
+	 */
+	private static final class ButtonField {
+
+		private final String name;
+		private final MethodHandle getter;
+		private final Position position;
+
+		private ButtonField(final String name, final MethodHandle getter, final Position position) {
+			this.name = name;
+			this.getter = getter;
+			this.position = position;
+		}
+
+		private Button get(final Menu menu) {
+			try {
+				return (Button) this.getter.invokeExact(menu);
+
+			} catch (final Throwable t) {
+				throw new FoException(t, "Failed to read button field " + this.name + " in " + menu);
+			}
+		}
+	}
 }
@@ -1,5 +1,11 @@
 package org.mineacademy.fo.menu;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryAction;
@@ -7,6 +13,8 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.mineacademy.fo.Common;
 import org.mineacademy.fo.MathUtil;
+import org.mineacademy.fo.RandomUtil;
+import org.mineacademy.fo.RandomUtil.WeightedSampler;
 import org.mineacademy.fo.Valid;
 import org.mineacademy.fo.collection.StrictMap;
 import org.mineacademy.fo.exception.FoException;
@@ -20,6 +28,7 @@ import org.mineacademy.fo.remain.Remain;
 
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
@@ -64,6 +73,11 @@ public abstract class MenuContainerChances extends Menu implements MenuQuantitab
 	@Getter(AccessLevel.PROTECTED)
 	private EditMode mode = EditMode.ITEM;
 
+	/*
+	 * The drop table compiled from the saved items, see getDropTable()
+	 */
+	private DropTable dropTable;
+
 	/**
 	 * Create a new menu that can edit chances of the items you put inside.
 	 *
@@ -212,6 +226,33 @@ public abstract class MenuContainerChances extends Menu implements MenuQuantitab
 	 */
 	protected abstract double getDropChance(int slot);
 
+	/**
+	 * Return the drop table compiled from {@link #getDropAt(int)} and {@link #getDropChance(int)}.
+	 * It is only compiled again after the items or chances are saved in this menu.
+	 *
+	 * @return
+	 */
+	public final DropTable getDropTable() {
+		if (this.dropTable == null) {
+			final StrictMap<Integer, Tuple<ItemStack, Double>> drops = new StrictMap<>();
+
+			// Only slots the editor saves, see onMenuClose
+			for (int slot = 0; slot < this.getSize() - 9; slot++) {
+				if (!this.canEditItem(slot))
+					continue;
+
+				final ItemStack item = this.getDropAt(slot);
+
+				if (item != null && !CompMaterial.isAir(item))
+					drops.put(slot, new Tuple<>(item, this.getDropChance(slot)));
+			}
+
+			this.dropTable = DropTable.of(drops.getSource());
+		}
+
+		return this.dropTable;
+	}
+
 	// ------------------------------------------------------------------------------------------------------------
 	// Allowing clicking
 	// ------------------------------------------------------------------------------------------------------------
@@ -334,6 +375,9 @@ public abstract class MenuContainerChances extends Menu implements MenuQuantitab
 		}
 
 		this.onMenuClose(items);
+
+		// Saved, compile again when asked
+		this.dropTable = null;
 	}
 
 	/**
@@ -376,6 +420,130 @@ public abstract class MenuContainerChances extends Menu implements MenuQuantitab
 	// Classes
 	// ------------------------------------------------------------------------------------------------------------
 
+	/**
+	 * Items with their drop chances compiled for rolling many times, see {@link MenuContainerChances#getDropTable()}
+	 * or {@link #of(Map)} to build it from the map given to {@link MenuContainerChances#onMenuClose(StrictMap)}.
+	 *
+	 * Items are always returned as copies.
+	 */
+	public static final class DropTable {
+
+		/**
+		 * The items by their order in the container
+		 */
+		private final ItemStack[] items;
+
+		/**
+		 * Drop chances from 0.00 to 1.00 for each item
+		 */
+		private final double[] chances;
+
+		/**
+		 * Picks item indexes by their chance as weight, null if no item can drop
+		 */
+		@Nullable
+		private final WeightedSampler<Integer> sampler;
+
+		private DropTable(List<ItemStack> items, List<Double> chances) {
+			this.items = items.toArray(new ItemStack[items.size()]);
+			this.chances = new double[this.items.length];
+
+			final List<Integer> indexes = new ArrayList<>(this.items.length);
+			boolean anyChance = false;
+
+			for (int i = 0; i < this.chances.length; i++) {
+				this.chances[i] = MathUtil.range(chances.get(i), 0.D, 1.D);
+
+				if (this.chances[i] > 0)
+					anyChance = true;
+
+				indexes.add(i);
+			}
+
+			this.sampler = anyChance ? RandomUtil.newWeightedSampler(indexes, index -> this.chances[index]) : null;
+		}
+
+		/**
+		 * Roll each item by its own drop chance and return those that dropped
+		 *
+		 * @return
+		 */
+		public List<ItemStack> roll() {
+			final List<ItemStack> dropped = new ArrayList<>();
+
+			for (int i = 0; i < this.items.length; i++)
+				if (this.chances[i] >= 1 || RandomUtil.chanceD(this.chances[i]))
+					dropped.add(this.items[i].clone());
+
+			return dropped;
+		}
+
+		/**
+		 * Return one item, using drop chances as weights, or null if no item can drop
+		 *
+		 * @return
+		 */
+		@Nullable
+		public ItemStack pickOne() {
+			return this.sampler != null ? this.items[this.sampler.next()].clone() : null;
+		}
+
+		/**
+		 * Return the given count of different items, using drop chances as weights.
+		 * Returns fewer items if not enough of them can drop.
+		 *
+		 * @param count
+		 * @return
+		 */
+		public List<ItemStack> pick(int count) {
+			final List<ItemStack> picked = new ArrayList<>();
+
+			if (this.sampler != null)
+				for (final int index : this.sampler.nextDistinct(count))
+					picked.add(this.items[index].clone());
+
+			return picked;
+		}
+
+		/**
+		 * Return how many items are in this table
+		 *
+		 * @return
+		 */
+		public int size() {
+			return this.items.length;
+		}
+
+		/**
+		 * Return true if there are no items in this table
+		 *
+		 * @return
+		 */
+		public boolean isEmpty() {
+			return this.items.length == 0;
+		}
+
+		/**
+		 * Compile a drop table from items and their chances, null values
+		 * and air items are ignored
+		 *
+		 * @param drops
+		 * @return
+		 */
+		public static DropTable of(@NonNull Map<?, Tuple<ItemStack, Double>> drops) {
+			final List<ItemStack> items = new ArrayList<>();
+			final List<Double> chances = new ArrayList<>();
+
+			for (final Tuple<ItemStack, Double> drop : drops.values())
+				if (drop != null && drop.getKey() != null && !CompMaterial.isAir(drop.getKey())) {
+					items.add(drop.getKey().clone());
+					chances.add(drop.getValue() != null ? drop.getValue() : 0.D);
+				}
+
+			return new DropTable(items, chances);
+		}
+	}
+
 	/**
 	 * The menu edit mode
 	 */
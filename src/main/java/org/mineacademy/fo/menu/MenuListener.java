@@ -86,6 +86,10 @@ public final class MenuListener implements Listener {
 
 			final boolean allowed = menu.isActionAllowed(whereClicked, slot, slotItem, cursor, action);
 
+			// The player may change items in the menu, we no longer know what is drawn there
+			if (allowed && (whereClicked == MenuClickLocation.MENU || action == InventoryAction.MOVE_TO_OTHER_INVENTORY || action == InventoryAction.COLLECT_TO_CURSOR))
+				menu.forgetRenderedItems();
+
 			if (whereClicked == MenuClickLocation.MENU && slotItem != null)
 				try {
 					Button button = menu.getButton(slot);
@@ -171,6 +175,8 @@ public final class MenuListener implements Listener {
 						return;
 					}
 				}
+
+				menu.forgetRenderedItems();
 			}
 		}
 	}
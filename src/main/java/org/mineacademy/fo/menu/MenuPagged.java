@@ -2,15 +2,16 @@ package org.mineacademy.fo.menu;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryType;
-import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.mineacademy.fo.Common;
 import org.mineacademy.fo.MathUtil;
@@ -20,6 +21,7 @@ import org.mineacademy.fo.exception.FoException;
 import org.mineacademy.fo.menu.button.Button;
 import org.mineacademy.fo.menu.model.InventoryDrawer;
 import org.mineacademy.fo.menu.model.ItemCreator;
+import org.mineacademy.fo.menu.model.PageSource;
 import org.mineacademy.fo.remain.CompMaterial;
 import org.mineacademy.fo.remain.Remain;
 import org.mineacademy.fo.settings.SimpleLocalization;
@@ -55,6 +57,14 @@ public abstract class MenuPagged<T> extends Menu {
 	@Setter
 	private static CompMaterial inactivePageButton = CompMaterial.GRAY_DYE;
 
+	/**
+	 * How many pages before and after the current one are loaded in advance
+	 * when using a {@link PageSource}
+	 */
+	@Getter
+	@Setter
+	private static int prefetchedPages = 1;
+
 	/**
 	 * The slots the current page's items will be in
 	 */
@@ -62,10 +72,30 @@ public abstract class MenuPagged<T> extends Menu {
 	private final List<Integer> slots;
 
 	/**
-	 * The raw items iterated
+	 * The raw items iterated, null when using a page source
 	 */
 	private final Iterable<T> items;
 
+	/**
+	 * The source loading pages on demand, null when using raw items
+	 */
+	private final PageSource<T> pageSource;
+
+	/**
+	 * The pages being loaded from the page source by their index
+	 */
+	private final Map<Integer, CompletableFuture<List<T>>> loadingPages = new HashMap<>();
+
+	/**
+	 * The total amount of items in the page source, updated when pages are calculated
+	 */
+	private int sourceItemCount;
+
+	/**
+	 * How many items fit on one page
+	 */
+	private int pageSize;
+
 	/**
 	 * The page size overriding automatic pagination system adjusting menu
 	 * size based on item count
@@ -73,7 +103,8 @@ public abstract class MenuPagged<T> extends Menu {
 	private final Integer manualPageSize;
 
 	/**
-	 * The pages by the page number, containing a list of items
+	 * The pages by the page number, containing a list of items.
+	 * When using a page source, only pages loaded around the current one are stored
 	 */
 	@Getter
 	private final Map<Integer, List<T>> pages = new HashMap<>();
@@ -256,10 +287,52 @@ public abstract class MenuPagged<T> extends Menu {
 	 * @param returnMakesNewInstance should we re-instatiate the parent menu when returning to it?
 	 */
 	private MenuPagged(final Integer pageSize, final Menu parent, final List<Integer> slots, final Iterable<T> items, final boolean returnMakesNewInstance) {
+		this(pageSize, parent, slots, items, null, returnMakesNewInstance);
+	}
+
+	/**
+	 * Create a new paged menu loading pages from the given source on demand
+	 *
+	 * @param parent the parent menu
+	 * @param source the page source
+	 */
+	protected MenuPagged(final Menu parent, @NonNull final PageSource<T> source) {
+		this(null, parent, null, null, source, false);
+	}
+
+	/**
+	 * Create a new paged menu loading pages from the given source on demand
+	 *
+	 * @param pageSize size of the menu, a multiple of 9 (keep in mind we already add
+	 *                 1 row there)
+	 * @param parent   the parent menu
+	 * @param source   the page source
+	 */
+	protected MenuPagged(final int pageSize, final Menu parent, @NonNull final PageSource<T> source) {
+		this(pageSize, parent, null, null, source, false);
+	}
+
+	/**
+	 * Create a new paged menu loading pages from the given source on demand
+	 *
+	 * @param parent                 the parent menu
+	 * @param slots                  the slots where the items should be placed on a page
+	 * @param source                 the page source
+	 * @param returnMakesNewInstance should we re-instatiate the parent menu when returning to it?
+	 */
+	protected MenuPagged(final Menu parent, final List<Integer> slots, @NonNull final PageSource<T> source, final boolean returnMakesNewInstance) {
+		this(null, parent, slots, null, source, returnMakesNewInstance);
+	}
+
+	/*
+	 * Create a new paged menu from either raw items or a page source
+	 */
+	private MenuPagged(final Integer pageSize, final Menu parent, final List<Integer> slots, final Iterable<T> items, final PageSource<T> pageSource, final boolean returnMakesNewInstance) {
 		super(parent, returnMakesNewInstance);
 
 		this.slots = slots != null ? slots : new ArrayList<>();
 		this.items = items;
+		this.pageSource = pageSource;
 		this.manualPageSize = pageSize;
 
 		this.calculatePages();
@@ -270,7 +343,10 @@ public abstract class MenuPagged<T> extends Menu {
 	 * Recalculate pages
 	 */
 	private void calculatePages() {
-		final int items = this.getItemAmount(this.items);
+		if (this.pageSource != null)
+			this.sourceItemCount = this.pageSource.getTotalCount();
+
+		final int items = this.pageSource != null ? this.sourceItemCount : this.getItemAmount(this.items);
 		final int autoPageSize;
 
 		if (this.slots.isEmpty()) {
@@ -284,10 +360,127 @@ public abstract class MenuPagged<T> extends Menu {
 		} else
 			autoPageSize = this.slots.size();
 
+		this.pageSize = autoPageSize;
+
+		if (this.pageSource != null) {
+			this.currentPage = MathUtil.range(this.currentPage, 1, this.getPageCount());
+			this.loadPagesAround();
+
+			return;
+		}
+
 		this.pages.clear();
 		this.pages.putAll(Common.fillPages(autoPageSize, this.items));
 	}
 
+	/*
+	 * Evict pages far from the current one and start loading the current page and its neighbours
+	 */
+	private void loadPagesAround() {
+		final int current = this.currentPage - 1;
+		final int first = Math.max(0, current - prefetchedPages);
+		final int last = Math.min(this.getPageCount() - 1, current + prefetchedPages);
+
+		this.pages.keySet().removeIf(index -> index < first || index > last);
+		this.loadingPages.keySet().removeIf(index -> index < first || index > last);
+
+		// Current page first so it is not queued behind the prefetched ones
+		this.loadPage(current);
+
+		for (int index = first; index <= last; index++)
+			this.loadPage(index);
+	}
+
+	/*
+	 * Start loading the given page unless loaded or being loaded
+	 */
+	private void loadPage(final int index) {
+		if (this.pages.containsKey(index) || this.loadingPages.containsKey(index))
+			return;
+
+		final CompletableFuture<List<T>> future = this.pageSource.loadPage(index, this.pageSize);
+
+		// Sync sources are stored right away to avoid placeholders flashing
+		if (future.isDone() && !future.isCompletedExceptionally()) {
+			this.pages.put(index, this.trimPage(future.join()));
+
+			return;
+		}
+
+		this.loadingPages.put(index, future);
+
+		future.whenComplete((items, error) -> Common.runLater(() -> {
+
+			// Evicted or reloaded in the meanwhile
+			if (this.loadingPages.get(index) != future)
+				return;
+
+			this.loadingPages.remove(index);
+
+			if (error != null) {
+				Common.error(error, "Failed to load page " + (index + 1) + " in menu " + this);
+
+				this.pages.put(index, new ArrayList<>());
+
+			} else
+				this.pages.put(index, this.trimPage(items));
+
+			final Player viewer = this.getViewer();
+
+			if (index == this.currentPage - 1 && viewer != null && Menu.getMenu(viewer) == this)
+				this.redrawSlots(this.slots);
+		}));
+	}
+
+	/*
+	 * Ensure the page does not overflow the slots
+	 */
+	private List<T> trimPage(final List<T> items) {
+		if (items == null)
+			return new ArrayList<>();
+
+		return items.size() > this.pageSize ? new ArrayList<>(items.subList(0, this.pageSize)) : items;
+	}
+
+	/**
+	 * Drop all pages loaded from the page source and load them again, then redraw the menu.
+	 * Use when the underlying data have changed. Does nothing when not using a page source.
+	 */
+	protected final void reloadPages() {
+		if (this.pageSource == null)
+			return;
+
+		this.pages.clear();
+		this.loadingPages.clear();
+
+		if (this.getViewer() != null && Menu.getMenu(this.getViewer()) == this)
+			this.restartMenu();
+		else
+			this.calculatePages();
+	}
+
+	/**
+	 * Return how many pages this menu has
+	 *
+	 * @return
+	 */
+	public final int getPageCount() {
+		if (this.pageSource != null)
+			return Math.max(1, (this.sourceItemCount + this.pageSize - 1) / Math.max(1, this.pageSize));
+
+		return this.pages.size();
+	}
+
+	/**
+	 * Return the item shown in place of items on a page still being loaded from the page source,
+	 * override to customize it
+	 *
+	 * @return
+	 */
+	protected ItemStack getLoadingItem() {
+		return ItemCreator.of(CompMaterial.LIGHT_GRAY_STAINED_GLASS_PANE, "&7Loading...").make();
+	}
+
 	@SuppressWarnings("unused")
 	private int getItemAmount(final Iterable<T> pages) {
 		int amount = 0;
@@ -315,7 +508,7 @@ public abstract class MenuPagged<T> extends Menu {
 	 * @return
 	 */
 	protected boolean canShowPreviousButton() {
-		return this.pages.size() > 1;
+		return this.getPageCount() > 1;
 	}
 
 	/**
@@ -325,7 +518,7 @@ public abstract class MenuPagged<T> extends Menu {
 	 * @return
 	 */
 	protected boolean canShowNextButton() {
-		return this.pages.size() > 1;
+		return this.getPageCount() > 1;
 	}
 
 	/**
@@ -341,7 +534,7 @@ public abstract class MenuPagged<T> extends Menu {
 			@Override
 			public void onClickedInMenu(final Player player, final Menu menu, final ClickType click) {
 				if (this.canGo)
-					setCurrentPage(MathUtil.range(getCurrentPage() - 1, 1, getPages().size()));
+					setCurrentPage(MathUtil.range(getCurrentPage() - 1, 1, getPageCount()));
 			}
 
 			@Override
@@ -364,17 +557,17 @@ public abstract class MenuPagged<T> extends Menu {
 	 */
 	public Button formNextButton() {
 		return new Button() {
-			final boolean canGo = getCurrentPage() < getPages().size();
+			final boolean canGo = getCurrentPage() < getPageCount();
 
 			@Override
 			public void onClickedInMenu(final Player player, final Menu menu, final ClickType click) {
 				if (this.canGo)
-					setCurrentPage(MathUtil.range(getCurrentPage() + 1, 1, getPages().size()));
+					setCurrentPage(MathUtil.range(getCurrentPage() + 1, 1, getPageCount()));
 			}
 
 			@Override
 			public ItemStack getItem() {
-				final boolean lastPage = getCurrentPage() == getPages().size();
+				final boolean lastPage = getCurrentPage() == getPageCount();
 
 				return ItemCreator
 						.of(this.canGo ? MenuPagged.getActivePageButton() : MenuPagged.getInactivePageButton())
@@ -410,9 +603,9 @@ public abstract class MenuPagged<T> extends Menu {
 	 * @return
 	 */
 	public final String getTitleWithPageNumbers() {
-		final boolean canAddNumbers = this.addPageNumbers() && this.pages.size() > 1;
+		final boolean canAddNumbers = this.addPageNumbers() && this.getPageCount() > 1;
 
-		return "&0" + this.getTitle() + (canAddNumbers ? " &8" + this.currentPage + "/" + this.pages.size() : "");
+		return "&0" + this.getTitle() + (canAddNumbers ? " &8" + this.currentPage + "/" + this.getPageCount() : "");
 	}
 
 	/**
@@ -437,6 +630,17 @@ public abstract class MenuPagged<T> extends Menu {
 		this.calculatePages();
 	}
 
+	/**
+	 * Forget pages loaded from the page source when nobody is viewing them
+	 */
+	@Override
+	final void onCloseInternal() {
+		if (this.pageSource != null) {
+			this.pages.clear();
+			this.loadingPages.clear();
+		}
+	}
+
 	/**
 	 * Return the {@link ItemStack} representation of an item on a certain page
 	 * <p>
@@ -472,6 +676,9 @@ public abstract class MenuPagged<T> extends Menu {
 	 * @return
 	 */
 	protected boolean isEmpty() {
+		if (this.pageSource != null)
+			return this.sourceItemCount == 0;
+
 		return this.pages.isEmpty() || this.pages.get(0).isEmpty();
 	}
 
@@ -494,6 +701,9 @@ public abstract class MenuPagged<T> extends Menu {
 				return this.convertToItemStack(object);
 		}
 
+		if (this.isCurrentPageLoading() && this.slots.contains(slot) && this.slots.indexOf(slot) < this.getCurrentPageExpectedSize())
+			return this.getLoadingItem();
+
 		if (slot == this.getPreviousButtonPosition())
 			return this.prevButton.getItem();
 
@@ -535,11 +745,9 @@ public abstract class MenuPagged<T> extends Menu {
 				final InventoryType prevType = Remain.invokeOpenInventoryMethod(player, "getType");
 				this.onPageClick(player, obj, click);
 
-				if (prevType == Remain.invokeOpenInventoryMethod(player, "getType")) {
-					final Inventory topInventory = Remain.getTopInventoryFromOpenInventory(player);
-
-					topInventory.setItem(slot, this.getItemAt(slot));
-				}
+				// Write through the menu so the remembered slot item is updated too
+				if (prevType == Remain.invokeOpenInventoryMethod(player, "getType"))
+					this.setItem(slot, this.getItemAt(slot));
 			}
 		}
 	}
@@ -565,8 +773,33 @@ public abstract class MenuPagged<T> extends Menu {
 		throw new FoException("Simplest click unsupported");
 	}
 
+	/*
+	 * Return true if the current page is still being loaded from the page source
+	 */
+	private boolean isCurrentPageLoading() {
+		return this.pageSource != null && !this.pages.containsKey(this.currentPage - 1);
+	}
+
+	/*
+	 * Return how many items the current page of the page source will have
+	 */
+	private int getCurrentPageExpectedSize() {
+		return Math.min(this.pageSize, this.sourceItemCount - (this.currentPage - 1) * this.pageSize);
+	}
+
 	// Get all items in a page
 	private List<T> getCurrentPageItems() {
+		if (this.pageSource != null) {
+
+			// Pages are evicted when the menu closes, load them again when it is reopened
+			if (this.isCurrentPageLoading())
+				this.loadPagesAround();
+
+			final List<T> page = this.pages.get(this.currentPage - 1);
+
+			return page != null ? page : Collections.emptyList();
+		}
+
 		Valid.checkBoolean(this.pages.containsKey(this.currentPage - 1), "The menu has only " + this.pages.size() + " pages, not " + this.currentPage + "!");
 
 		return this.pages.get(this.currentPage - 1);
@@ -0,0 +1,155 @@
+package org.mineacademy.fo.menu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.scheduler.BukkitTask;
+import org.mineacademy.fo.Common;
+import org.mineacademy.fo.exception.EventHandledException;
+import org.mineacademy.fo.menu.Menu.MenuRunnable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single timer running animations of all open menus, see {@link Menu#animate(int, MenuRunnable)}.
+ *
+ * Animations are removed when their menu is closed or they call {@link MenuRunnable#cancel()},
+ * and the timer stops when there are no animations left.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class MenuTicker {
+
+	/**
+	 * Ticks to wait before an animation first runs
+	 */
+	private static final int INITIAL_DELAY_TICKS = 2;
+
+	/**
+	 * Animations being run
+	 */
+	private static final List<Animation> animations = new ArrayList<>();
+
+	/**
+	 * The shared task, or null if nothing is animated
+	 */
+	private static BukkitTask task;
+
+	/**
+	 * Ticks elapsed since the task started
+	 */
+	private static long ticks;
+
+	/*
+	 * Start running the animation for the given menu
+	 */
+	static void register(Menu menu, int periodTicks, MenuRunnable runnable, boolean async) {
+		animations.add(new Animation(menu, Math.max(1, periodTicks), runnable, async, ticks + INITIAL_DELAY_TICKS));
+
+		if (task == null)
+			task = Common.runTimer(1, MenuTicker::tick);
+	}
+
+	/*
+	 * Stop all animations of the given menu
+	 */
+	static void unregister(Menu menu) {
+		animations.removeIf(animation -> animation.menu == menu);
+
+		stopIfIdle();
+	}
+
+	/*
+	 * Run all animations that are due this tick
+	 */
+	private static void tick() {
+		ticks++;
+
+		for (final Animation animation : animations.toArray(new Animation[animations.size()])) {
+			if (animation.cancelled) {
+				animations.remove(animation);
+
+				continue;
+			}
+
+			if (ticks < animation.nextRun)
+				continue;
+
+			// Only checked once due, since menus are marked opened a tick after being displayed
+			if (!animation.menu.isOpened()) {
+				animations.remove(animation);
+
+				continue;
+			}
+
+			animation.nextRun = ticks + animation.periodTicks;
+
+			if (animation.async) {
+
+				// Skip if the previous run has not yet finished
+				if (animation.running)
+					continue;
+
+				animation.running = true;
+
+				Common.runAsync(() -> {
+					try {
+						animation.run();
+
+					} finally {
+						animation.running = false;
+					}
+				});
+
+			} else
+				animation.run();
+		}
+
+		stopIfIdle();
+	}
+
+	/*
+	 * Cancel the timer if there is nothing to animate
+	 */
+	private static void stopIfIdle() {
+		if (animations.isEmpty() && task != null) {
+			task.cancel();
+
+			task = null;
+		}
+	}
+
+	/*
+	 * A single animation registered by a menu
+	 */
+	private static final class Animation {
+
+		private final Menu menu;
+		private final int periodTicks;
+		private final MenuRunnable runnable;
+		private final boolean async;
+		private long nextRun;
+		private volatile boolean running;
+		private volatile boolean cancelled;
+
+		private Animation(Menu menu, int periodTicks, MenuRunnable runnable, boolean async, long nextRun) {
+			this.menu = menu;
+			this.periodTicks = periodTicks;
+			this.runnable = runnable;
+			this.async = async;
+			this.nextRun = nextRun;
+		}
+
+		private void run() {
+			try {
+				this.runnable.run();
+
+			} catch (final EventHandledException ex) {
+				this.cancelled = true;
+
+			} catch (final Throwable t) {
+				Common.error(t, "Error animating menu " + this.menu);
+			}
+		}
+	}
+}
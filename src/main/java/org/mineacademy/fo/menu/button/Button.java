@@ -89,6 +89,17 @@ public abstract class Button {
 	 */
 	public abstract ItemStack getItem();
 
+	/**
+	 * Return true if {@link #getSlot()} may return a different slot while the menu is open.
+	 * Such buttons are checked each time the menu is clicked, other buttons are looked up
+	 * by the slot they had when the menu was last drawn.
+	 *
+	 * @return false by default
+	 */
+	public boolean isSlotDynamic() {
+		return false;
+	}
+
 	// ----------------------------------------------------------------
 	// Static methods
 	// ----------------------------------------------------------------
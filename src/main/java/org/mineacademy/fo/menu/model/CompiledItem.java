@@ -0,0 +1,214 @@
+package org.mineacademy.fo.menu.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.mineacademy.fo.Common;
+import org.mineacademy.fo.Valid;
+
+import lombok.NonNull;
+
+/**
+ * An immutable item prebuilt from an {@link ItemCreator}, see {@link ItemCreator#compile()}.
+ *
+ * Calling {@link #make()} only clones the prebuilt item instead of building it again.
+ * If the name or lore has placeholders, {@link #make(Function)} renders the name and lore
+ * the same way as {@link ItemCreator#replaceVariables(Function)} and keeps everything else
+ * from the prebuilt item, reusing prebuilt lore lines which came out unchanged.
+ *
+ * Changes made to {@link ItemCreator#setLorePrefix(String)} after compiling are not reflected.
+ */
+public final class CompiledItem {
+
+	/**
+	 * Matches {variable} and %variable% placeholders
+	 */
+	private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{[^{}\\s]+\\}|%[^%\\s]+%");
+
+	/**
+	 * Compiled items without placeholders by their key, see {@link #cached(String, Supplier)}
+	 */
+	private static final Map<String, CompiledItem> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * The prebuilt item, never given out directly
+	 */
+	private final ItemStack template;
+
+	/**
+	 * The raw name, or null if not set
+	 */
+	@Nullable
+	private final String name;
+
+	/**
+	 * The raw lore as given to the creator, joined by new lines, or null if not set
+	 */
+	@Nullable
+	private final String lore;
+
+	/**
+	 * The raw lore lines as given to the creator, split by new lines
+	 */
+	private final String[] loreLines;
+
+	/**
+	 * Where the creator lore starts in the prebuilt item lore, after custom enchantment lores
+	 */
+	private final int loreOffset;
+
+	/**
+	 * The lore prefix at the time of compiling
+	 */
+	private final String lorePrefix;
+
+	/**
+	 * A copy of the creator, used if the prebuilt lore is not what we expect
+	 */
+	private final ItemCreator source;
+
+	/*
+	 * Does the name or lore have any placeholders?
+	 */
+	private final boolean placeholders;
+
+	/*
+	 * Create a new compiled item, see ItemCreator#compile
+	 */
+	CompiledItem(ItemStack template, @Nullable String name, @Nullable String lore, List<String> loreLines, ItemCreator source) {
+		this.template = template;
+		this.name = name;
+		this.lore = lore;
+		this.loreLines = loreLines.toArray(new String[loreLines.size()]);
+		this.lorePrefix = ItemCreator.getLorePrefix() != null ? ItemCreator.getLorePrefix() : "";
+		this.source = source;
+
+		final ItemMeta meta = template.hasItemMeta() ? template.getItemMeta() : null;
+		final int loreSize = meta != null && meta.hasLore() ? meta.getLore().size() : 0;
+
+		this.loreOffset = Math.max(0, loreSize - this.loreLines.length);
+		this.placeholders = name != null && PLACEHOLDER_PATTERN.matcher(name).find() || lore != null && PLACEHOLDER_PATTERN.matcher(lore).find();
+	}
+
+	/**
+	 * Return true if the name or lore has {variable} or %variable% placeholders
+	 *
+	 * @return
+	 */
+	public boolean hasPlaceholders() {
+		return this.placeholders;
+	}
+
+	/**
+	 * Return a copy of the prebuilt item
+	 *
+	 * @return
+	 */
+	public ItemStack make() {
+		return this.template.clone();
+	}
+
+	/**
+	 * Return a copy of the prebuilt item with the replacer applied to the name and lore
+	 * exactly as {@link ItemCreator#replaceVariables(Function)} does, or simply a copy
+	 * if there are no placeholders
+	 *
+	 * @param replacer
+	 * @return
+	 */
+	public ItemStack make(@NonNull Function<String, String> replacer) {
+		if (!this.placeholders)
+			return this.make();
+
+		final ItemStack item = this.template.clone();
+		final ItemMeta meta = item.getItemMeta();
+
+		if (meta == null)
+			return item;
+
+		if (this.name != null) {
+			final String name = replacer.apply(this.name);
+
+			// The creator would keep the original item name, do it the slow way
+			if (name == null || name.isEmpty())
+				return this.source.replaceVariables(replacer).make();
+
+			meta.setDisplayName(Common.colorize("&r&f" + name));
+		}
+
+		if (this.lore != null) {
+			final List<String> prebuiltLore = meta.hasLore() ? meta.getLore() : null;
+
+			// Something changed the lore when building, do it the slow way
+			if (prebuiltLore == null || prebuiltLore.size() != this.loreOffset + this.loreLines.length)
+				return this.source.replaceVariables(replacer).make();
+
+			// Replace the variables again if the replacements had placeholders in them
+			final String[] lines = StringUtils.splitPreserveAllTokens(replacer.apply(replacer.apply(this.lore)), '\n');
+			final List<String> lore = new ArrayList<>(this.loreOffset + lines.length);
+
+			lore.addAll(prebuiltLore.subList(0, this.loreOffset));
+
+			for (int i = 0; i < lines.length; i++)
+				if (i < this.loreLines.length && lines[i].equals(this.loreLines[i]))
+					lore.add(prebuiltLore.get(this.loreOffset + i));
+
+				else
+					lore.add(Common.colorize(this.lorePrefix + lines[i]));
+
+			meta.setLore(lore);
+		}
+
+		item.setItemMeta(meta);
+
+		return item;
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Static
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Return the compiled item stored under the given key, compiling it from
+	 * the given creator the first time. Only items without placeholders can be cached,
+	 * since they look the same for everyone.
+	 *
+	 * @param key
+	 * @param creator
+	 * @return
+	 */
+	public static CompiledItem cached(@NonNull String key, @NonNull Supplier<ItemCreator> creator) {
+		return cache.computeIfAbsent(key, unused -> {
+			final CompiledItem compiled = creator.get().compile();
+
+			Valid.checkBoolean(!compiled.hasPlaceholders(), "Cannot cache item '" + key + "' which has placeholders, keep its ItemCreator#compile() yourself and call make(replacer)");
+			return compiled;
+		});
+	}
+
+	/**
+	 * Remove the compiled item from the cache, so it is compiled again next time
+	 *
+	 * @param key
+	 */
+	public static void invalidate(@NonNull String key) {
+		cache.remove(key);
+	}
+
+	/**
+	 * Remove all compiled items from the cache, such as when reloading settings
+	 */
+	public static void clearCache() {
+		cache.clear();
+	}
+}
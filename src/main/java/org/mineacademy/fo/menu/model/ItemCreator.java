@@ -794,6 +794,26 @@ public final class ItemCreator implements ConfigSerializable {
 		return this.make();
 	}
 
+	/**
+	 * Build the item once and return an immutable template of it, whose {@link CompiledItem#make()}
+	 * only clones the prebuilt item. Use when you show the same item many times, such as in menus.
+	 *
+	 * Changes made to this creator afterwards do not affect the compiled item.
+	 *
+	 * @return the compiled item
+	 */
+	public CompiledItem compile() {
+		final List<String> loreLines = new ArrayList<>();
+
+		for (final String lore : this.lores)
+			if (lore != null)
+				for (final String subLore : lore.split("\n"))
+					loreLines.add(subLore);
+
+		return new CompiledItem(this.copy().make(), this.name != null && !"".equals(this.name) ? this.name : null,
+				this.lores.isEmpty() ? null : String.join("\n", this.lores), loreLines, this.copy());
+	}
+
 	/**
 	 * Construct a valid {@link ItemStack} from all parameters of this class.
 	 *
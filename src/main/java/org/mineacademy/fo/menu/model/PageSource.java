@@ -0,0 +1,96 @@
+package org.mineacademy.fo.menu.model;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.IntSupplier;
+
+import org.mineacademy.fo.Common;
+import org.mineacademy.fo.menu.MenuPagged;
+
+import lombok.NonNull;
+
+/**
+ * Supplies items to a {@link MenuPagged} one page at a time, so that large
+ * collections such as offline players or logs do not need to be loaded in advance.
+ *
+ * @param <T> the item that each page consists of
+ */
+public interface PageSource<T> {
+
+	/**
+	 * Return how many items there are in total, called on the main thread
+	 * each time the menu is drawn or restarted
+	 *
+	 * @return
+	 */
+	int getTotalCount();
+
+	/**
+	 * Load items of the given page. Return a completed future if the items are
+	 * available right away, otherwise the menu shows placeholders until the future completes.
+	 *
+	 * @param index the page index, starting at 0
+	 * @param size how many items fit on one page, the page starts at item index * size
+	 * @return
+	 */
+	CompletableFuture<List<T>> loadPage(int index, int size);
+
+	/**
+	 * Create a page source loading pages on the main thread
+	 *
+	 * @param <T>
+	 * @param totalCount
+	 * @param loader the page index and page size to items function
+	 * @return
+	 */
+	static <T> PageSource<T> of(@NonNull IntSupplier totalCount, @NonNull BiFunction<Integer, Integer, List<T>> loader) {
+		return new PageSource<T>() {
+
+			@Override
+			public int getTotalCount() {
+				return totalCount.getAsInt();
+			}
+
+			@Override
+			public CompletableFuture<List<T>> loadPage(int index, int size) {
+				return CompletableFuture.completedFuture(loader.apply(index, size));
+			}
+		};
+	}
+
+	/**
+	 * Create a page source loading pages off the main thread using the Bukkit scheduler,
+	 * such as from a database
+	 *
+	 * @param <T>
+	 * @param totalCount
+	 * @param loader the page index and page size to items function, called async
+	 * @return
+	 */
+	static <T> PageSource<T> async(@NonNull IntSupplier totalCount, @NonNull BiFunction<Integer, Integer, List<T>> loader) {
+		return new PageSource<T>() {
+
+			@Override
+			public int getTotalCount() {
+				return totalCount.getAsInt();
+			}
+
+			@Override
+			public CompletableFuture<List<T>> loadPage(int index, int size) {
+				final CompletableFuture<List<T>> future = new CompletableFuture<>();
+
+				Common.runAsync(() -> {
+					try {
+						future.complete(loader.apply(index, size));
+
+					} catch (final Throwable t) {
+						future.completeExceptionally(t);
+					}
+				});
+
+				return future;
+			}
+		};
+	}
+}
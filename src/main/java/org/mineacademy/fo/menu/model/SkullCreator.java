@@ -5,8 +5,16 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
 
 import org.bukkit.Material;
 import org.bukkit.SkullType;
@@ -23,12 +31,17 @@ import org.mineacademy.fo.remain.Remain;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 
 /**
  * A library for the Bukkit API to create player skulls
  * from names, base64 strings, and texture URLs.
  * <p>
  * Does not use any NMS code, and should work across all versions.
+ * <p>
+ * Skulls made by the itemFrom methods are cached and cloned, so menus showing
+ * the same heads on every open do not apply profiles again. Use
+ * {@link #warmUpBase64(Collection, Runnable)} to build them before opening.
  *
  * @author Dean B on 12/28/2016.
  */
@@ -40,6 +53,29 @@ public class SkullCreator {
 	private static Method metaSetProfileMethod;
 	private static Field metaProfileField;
 
+	/**
+	 * Prebuilt skulls by their texture, UUID or name key, least recently used first
+	 */
+	private static final Map<String, CachedSkull> cache = new LinkedHashMap<String, CachedSkull>(16, 0.75F, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedSkull> eldest) {
+			return this.size() > cacheSize;
+		}
+	};
+
+	/**
+	 * How many skulls we keep in the cache
+	 */
+	private static int cacheSize = 256;
+
+	/**
+	 * How long until a cached skull is built again, in milliseconds
+	 */
+	private static long cacheTtl = 30 * 60 * 1000;
+
 	/**
 	 * Creates a player skull, should work in both legacy and new Bukkit APIs.
 	 *
@@ -62,7 +98,7 @@ public class SkullCreator {
 	 *
 	 */
 	public static ItemStack itemFromName(final String name) {
-		return itemWithName(createSkull(), name);
+		return fromCache("name:" + name.toLowerCase(), () -> itemWithName(createSkull(), name));
 	}
 
 	/**
@@ -72,7 +108,7 @@ public class SkullCreator {
 	 * @return The head of the Player.
 	 */
 	public static ItemStack itemFromUuid(final UUID id) {
-		return itemWithUuid(createSkull(), id);
+		return fromCache("uuid:" + id, () -> itemWithUuid(createSkull(), id));
 	}
 
 	/**
@@ -82,7 +118,7 @@ public class SkullCreator {
 	 * @return The head of the Player.
 	 */
 	public static ItemStack itemFromUrl(final String url) {
-		return itemWithUrl(createSkull(), url);
+		return itemFromBase64(urlToBase64(url));
 	}
 
 	/**
@@ -92,7 +128,103 @@ public class SkullCreator {
 	 * @return The head of the Player.
 	 */
 	public static ItemStack itemFromBase64(final String base64) {
-		return itemWithBase64(createSkull(), base64);
+		return fromCache("base64:" + base64, () -> itemWithBase64(createSkull(), base64));
+	}
+
+	/**
+	 * Build skulls for the given base64 textures on another thread and put them into the cache,
+	 * then run the callback on the main thread, such as to open a menu showing them.
+	 *
+	 * @param textures
+	 * @param callback
+	 */
+	public static void warmUpBase64(@NonNull final Collection<String> textures, @Nullable final Runnable callback) {
+		final List<String> copy = new ArrayList<>(textures);
+
+		warmUp(() -> copy.forEach(SkullCreator::itemFromBase64), callback);
+	}
+
+	/**
+	 * Build skulls for the given player UUIDs on another thread and put them into the cache,
+	 * then run the callback on the main thread, such as to open a menu showing them.
+	 *
+	 * @param ids
+	 * @param callback
+	 */
+	public static void warmUpUuids(@NonNull final Collection<UUID> ids, @Nullable final Runnable callback) {
+		final List<UUID> copy = new ArrayList<>(ids);
+
+		warmUp(() -> copy.forEach(SkullCreator::itemFromUuid), callback);
+	}
+
+	/*
+	 * Run the task async and the callback sync after it
+	 */
+	private static void warmUp(final Runnable task, @Nullable final Runnable callback) {
+		Common.runAsync(() -> {
+			try {
+				task.run();
+
+			} catch (final Throwable t) {
+				Common.error(t, "Error building skulls for the cache");
+			}
+
+			if (callback != null)
+				Common.runLater(callback);
+		});
+	}
+
+	/**
+	 * Set how many skulls are kept in the cache and for how long, 0 size disables the cache
+	 *
+	 * @param size
+	 * @param ttlSeconds
+	 */
+	public static void setCacheLimits(final int size, final int ttlSeconds) {
+		Valid.checkBoolean(size >= 0 && ttlSeconds >= 0, "Skull cache size and TTL must not be negative, got " + size + " and " + ttlSeconds);
+
+		synchronized (cache) {
+			cacheSize = size;
+			cacheTtl = ttlSeconds * 1000L;
+
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Remove all skulls from the cache
+	 */
+	public static void clearCache() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	/*
+	 * Return a copy of the cached skull, building it if missing or expired
+	 */
+	private static ItemStack fromCache(final String key, final Supplier<ItemStack> builder) {
+		final long now = System.currentTimeMillis();
+		CachedSkull cached;
+
+		synchronized (cache) {
+			cached = cache.get(key);
+		}
+
+		if (cached == null || now - cached.created > cacheTtl) {
+			final ItemStack built = builder.get();
+
+			if (built == null)
+				return null;
+
+			cached = new CachedSkull(built, now);
+
+			synchronized (cache) {
+				cache.put(key, cached);
+			}
+		}
+
+		return cached.template.clone();
 	}
 
 	/**
@@ -322,6 +454,15 @@ public class SkullCreator {
 		}
 	}
 
+	/*
+	 * A prebuilt skull never given out directly
+	 */
+	@RequiredArgsConstructor
+	private static final class CachedSkull {
+		private final ItemStack template;
+		private final long created;
+	}
+
 	/**
 	 * Rotate the skull to a specific block face
 	 *
@@ -1,20 +1,32 @@
 package org.mineacademy.fo.menu.tool;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.ItemStack;
 import org.mineacademy.fo.Common;
-import org.mineacademy.fo.ItemUtil;
+import org.mineacademy.fo.ItemUtil.SimilarityKey;
+import org.mineacademy.fo.MinecraftVersion;
+import org.mineacademy.fo.MinecraftVersion.V;
 import org.mineacademy.fo.Valid;
+import org.mineacademy.fo.constants.FoConstants;
 import org.mineacademy.fo.menu.model.ItemCreator;
+import org.mineacademy.fo.remain.CompMaterial;
+import org.mineacademy.fo.remain.CompMetadata;
 
 /**
  * Represents a tool. A tool is a simple ItemStack that is registered within the
  * plugin and fires automatic events
+ *
+ * Items given by {@link #give(Player)} carry the tool ID in an NBT tag, so that they
+ * are found by a single tag read. Other items are compared to {@link #getItem()}.
  */
 public abstract class Tool {
 
@@ -23,6 +35,21 @@ public abstract class Tool {
 	 */
 	private static final Collection<Tool> tools = new ConcurrentLinkedQueue<>();
 
+	/**
+	 * The registered tools by their ID, see {@link #getToolId()}
+	 */
+	private static final Map<String, Tool> toolsById = new ConcurrentHashMap<>();
+
+	/**
+	 * The item types of registered tools, so other items are rejected without building tool items
+	 */
+	private static final Set<Material> toolTypes = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Can we store tool IDs on items?
+	 */
+	private static final boolean TAGS_SUPPORTED = MinecraftVersion.atLeast(V.v1_7);
+
 	/**
 	 * Add a new tool to register.
 	 * <p>
@@ -34,6 +61,13 @@ public abstract class Tool {
 		Valid.checkBoolean(!isRegistered(tool), "Tool with itemstack " + tool.getItem() + " already registered");
 
 		tools.add(tool);
+		toolTypes.add(tool.getItem().getType());
+
+		final Tool previous = toolsById.putIfAbsent(tool.getToolId(), tool);
+
+		if (previous != null)
+			Common.warning("Tool " + tool.getClass().getSimpleName() + " has the same ID '" + tool.getToolId() + "' as " + previous.getClass().getSimpleName()
+					+ ", its items will not be tagged and are only found by comparing them. Override getToolId() to fix this.");
 	}
 
 	/**
@@ -53,13 +87,43 @@ public abstract class Tool {
 	 * @return the corresponding tool, or null
 	 */
 	public static Tool getTool(ItemStack item) {
+		if (item == null || !hasToolOfType(item.getType()))
+			return null;
+
+		final Tool tagged = getTaggedTool(item);
+
+		if (tagged != null)
+			return tagged;
+
+		// Items given before tagging or not given through the tool
+		final SimilarityKey key = SimilarityKey.of(item);
+
 		for (final Tool t : tools)
-			if (t.isTool(item))
+			if (t.getSimilarityKey().equals(key))
 				return t;
 
 		return null;
 	}
 
+	/*
+	 * Return true if any registered tool has an item of the given type
+	 */
+	private static boolean hasToolOfType(Material type) {
+		return !CompMaterial.isAir(type) && toolTypes.contains(type);
+	}
+
+	/*
+	 * Return the registered tool from the ID tag on the item, or null if not tagged
+	 */
+	private static Tool getTaggedTool(ItemStack item) {
+		if (!TAGS_SUPPORTED || !item.hasItemMeta())
+			return null;
+
+		final String id = CompMetadata.getMetadata(item, FoConstants.NBT.TAG_TOOL);
+
+		return id != null ? toolsById.get(id) : null;
+	}
+
 	/**
 	 * Get all tools
 	 *
@@ -73,6 +137,21 @@ public abstract class Tool {
 	// Main class implementation
 	// -------------------------------------------------------------------------------------------
 
+	/*
+	 * The item we last created the similarity key for
+	 */
+	private ItemStack keyItem;
+
+	/*
+	 * The similarity key of our item, reused while getItem() returns the same instance
+	 */
+	private SimilarityKey similarityKey;
+
+	/*
+	 * Our item with the tool ID tag, created from keyItem
+	 */
+	private ItemStack taggedItem;
+
 	/**
 	 * Create a new tool
 	 */
@@ -105,7 +184,12 @@ public abstract class Tool {
 	 * @return true if this tool is the given itemstack
 	 */
 	public final boolean isTool(final ItemStack item) {
-		return ItemUtil.isSimilar(this.getItem(), item);
+		if (item == null || item.getType() != this.getItem().getType())
+			return false;
+
+		final Tool tagged = getTaggedTool(item);
+
+		return tagged != null ? tagged == this : this.getSimilarityKey().matches(item);
 	}
 
 	/**
@@ -132,6 +216,54 @@ public abstract class Tool {
 		return false;
 	}
 
+	/*
+	 * Return the similarity key of our item, only creating it again if getItem() returns a different instance
+	 */
+	private SimilarityKey getSimilarityKey() {
+		final ItemStack item = this.getItem();
+
+		if (this.similarityKey == null || this.keyItem != item) {
+			this.similarityKey = SimilarityKey.of(item);
+			this.taggedItem = null;
+			this.keyItem = item;
+		}
+
+		return this.similarityKey;
+	}
+
+	/**
+	 * Return the ID stored on items given by this tool, unique among the registered tools.
+	 *
+	 * Defaults to the class name, override if you create more instances of the same class.
+	 *
+	 * @return
+	 */
+	protected String getToolId() {
+		return this.getClass().getName();
+	}
+
+	/**
+	 * Return {@link #getItem()} with the tool ID tag, used when giving this tool to players
+	 * so that it is found quickly in {@link #getTool(ItemStack)}
+	 *
+	 * @return
+	 */
+	public final ItemStack getTaggedItem() {
+		final ItemStack item = this.getItem();
+
+		// Only tag items if the ID points to us
+		if (!TAGS_SUPPORTED || toolsById.get(this.getToolId()) != this)
+			return item;
+
+		// Resets the tagged item if getItem() changed
+		this.getSimilarityKey();
+
+		if (this.taggedItem == null)
+			this.taggedItem = CompMetadata.setMetadata(item, FoConstants.NBT.TAG_TOOL, this.getToolId());
+
+		return this.taggedItem.clone();
+	}
+
 	/**
 	 * Get the tool item
 	 * <p>
@@ -218,7 +350,7 @@ public abstract class Tool {
 	 * @param slot
 	 */
 	public final void give(final Player player, final int slot) {
-		player.getInventory().setItem(slot, this.getItem());
+		player.getInventory().setItem(slot, this.getTaggedItem());
 	}
 
 	/**
@@ -227,7 +359,7 @@ public abstract class Tool {
 	 * @param player
 	 */
 	public final void give(final Player player) {
-		player.getInventory().addItem(this.getItem());
+		player.getInventory().addItem(this.getTaggedItem());
 	}
 
 	/**
@@ -0,0 +1,430 @@
+package org.mineacademy.fo.model;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.annotation.Nullable;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A pure Java, read-only reader for Anvil region files (.mca) which does not touch
+ * the server internals and can be used from any thread.
+ *
+ * The file is memory-mapped, the 8 KiB header with chunk locations and timestamps
+ * is parsed once and chunks are decompressed (zlib, gzip, LZ4 or uncompressed)
+ * and parsed into plain Java objects on demand:
+ *
+ * compounds are {@link Map}, lists are {@link List}, byte/int/long arrays are
+ * primitive arrays, strings and numbers are their boxed Java types.
+ */
+public final class AnvilRegionFile {
+
+	/**
+	 * The size of a sector in the region file
+	 */
+	private static final int SECTOR_BYTES = 4096;
+
+	/**
+	 * Compression types used in the chunk header
+	 */
+	private static final int GZIP = 1, ZLIB = 2, NONE = 3, LZ4 = 4, EXTERNAL_FLAG = 128;
+
+	/**
+	 * The magic header lz4-java writes before each LZ4 block
+	 */
+	private static final byte[] LZ4_MAGIC = { 'L', 'Z', '4', 'B', 'l', 'o', 'c', 'k' };
+
+	/**
+	 * The region file
+	 */
+	@Getter
+	private final File file;
+
+	/**
+	 * The mapped file content, or null if the file has no chunks
+	 */
+	@Nullable
+	private final ByteBuffer buffer;
+
+	/**
+	 * Chunk locations (sector offset << 8 | sector count), indexed by x + z * 32
+	 */
+	private final int[] locations = new int[1024];
+
+	/**
+	 * Last modification timestamps in seconds, indexed by x + z * 32
+	 */
+	private final int[] timestamps = new int[1024];
+
+	private AnvilRegionFile(File file, @Nullable ByteBuffer buffer) {
+		this.file = file;
+		this.buffer = buffer;
+
+		if (buffer != null)
+			for (int i = 0; i < 1024; i++) {
+				this.locations[i] = buffer.getInt(i * 4);
+				this.timestamps[i] = buffer.getInt(SECTOR_BYTES + i * 4);
+			}
+	}
+
+	/**
+	 * Return true if the chunk at the given local coordinates (0-31) is saved in this file
+	 *
+	 * @param localX
+	 * @param localZ
+	 * @return
+	 */
+	public boolean isChunkSaved(int localX, int localZ) {
+		final int location = this.locations[index(localX, localZ)];
+		final long start = (long) (location >>> 8) * SECTOR_BYTES;
+
+		return location != 0 && this.buffer != null && start + 5 <= this.buffer.capacity();
+	}
+
+	/**
+	 * Return the last time the chunk was saved, in seconds since the epoch, or 0 if not saved
+	 *
+	 * @param localX
+	 * @param localZ
+	 * @return
+	 */
+	public int getTimestamp(int localX, int localZ) {
+		return this.timestamps[index(localX, localZ)];
+	}
+
+	/**
+	 * Decompress and parse the chunk NBT at the given local coordinates (0-31),
+	 * or return null if the chunk is not saved
+	 *
+	 * @param localX
+	 * @param localZ
+	 * @return
+	 * @throws IOException if the chunk data are corrupted
+	 */
+	@Nullable
+	public Map<String, Object> readChunkNbt(int localX, int localZ) throws IOException {
+		if (!this.isChunkSaved(localX, localZ))
+			return null;
+
+		final int offset = (this.locations[index(localX, localZ)] >>> 8) * SECTOR_BYTES;
+		final ByteBuffer buffer = this.buffer.duplicate();
+
+		final int length = buffer.getInt(offset);
+		final int type = buffer.get(offset + 4) & 0xFF;
+
+		final byte[] data;
+
+		if ((type & EXTERNAL_FLAG) != 0) {
+			final int regionX = this.getRegionCoordinate(1), regionZ = this.getRegionCoordinate(2);
+			final File external = new File(this.file.getParentFile(), "c." + ((regionX << 5) + localX) + "." + ((regionZ << 5) + localZ) + ".mcc");
+
+			data = Files.readAllBytes(external.toPath());
+
+		} else {
+			if (length <= 1 || offset + 4L + length > buffer.capacity())
+				throw new IOException("Chunk " + localX + " " + localZ + " in " + this.file + " has invalid length " + length);
+
+			data = new byte[length - 1];
+
+			buffer.position(offset + 5);
+			buffer.get(data);
+		}
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(decompress(type & ~EXTERNAL_FLAG, data)))) {
+			return readRoot(input);
+		}
+	}
+
+	/*
+	 * Parse the region x (group 1) or z (group 2) from the r.x.z.mca file name
+	 */
+	private int getRegionCoordinate(int group) throws IOException {
+		final String[] parts = this.file.getName().split("\\.");
+
+		try {
+			return Integer.parseInt(parts[group]);
+
+		} catch (final RuntimeException ex) {
+			throw new IOException("Cannot parse region coordinates from " + this.file.getName());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AnvilRegionFile{" + this.file.getName() + "}";
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Static
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Memory-map the given region file and read its header
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static AnvilRegionFile open(@NonNull File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final long size = channel.size();
+
+			// Files without a full header have no chunks
+			if (size < SECTOR_BYTES * 2)
+				return new AnvilRegionFile(file, null);
+
+			return new AnvilRegionFile(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+		}
+	}
+
+	/*
+	 * Return the header index of the given local chunk coordinates
+	 */
+	private static int index(int localX, int localZ) {
+		return (localX & 31) + (localZ & 31) * 32;
+	}
+
+	/*
+	 * Wrap the chunk data in a stream decompressing them
+	 */
+	private static InputStream decompress(int type, byte[] data) throws IOException {
+		final InputStream input = new ByteArrayInputStream(data);
+
+		switch (type) {
+			case GZIP:
+				return new GZIPInputStream(input);
+			case ZLIB:
+				return new InflaterInputStream(input);
+			case NONE:
+				return input;
+			case LZ4:
+				return new ByteArrayInputStream(decompressLz4(data));
+			default:
+				throw new IOException("Unsupported chunk compression type " + type);
+		}
+	}
+
+	/*
+	 * Decompress data written by lz4-java's LZ4BlockOutputStream, which Minecraft uses since 1.20.5
+	 */
+	private static byte[] decompressLz4(byte[] data) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream(data.length * 4);
+		int position = 0;
+
+		while (position + 21 <= data.length) {
+			for (int i = 0; i < LZ4_MAGIC.length; i++)
+				if (data[position + i] != LZ4_MAGIC[i])
+					throw new IOException("Invalid LZ4 block magic");
+
+			final int method = data[position + 8] & 0xF0;
+			final int compressedLength = readIntLE(data, position + 9);
+			final int originalLength = readIntLE(data, position + 13);
+
+			position += 21;
+
+			if (originalLength == 0)
+				break;
+
+			if (compressedLength < 0 || position + compressedLength > data.length)
+				throw new IOException("Invalid LZ4 block length " + compressedLength);
+
+			if (method == 0x10)
+				output.write(data, position, originalLength);
+
+			else if (method == 0x20) {
+				final byte[] block = new byte[originalLength];
+
+				decompressLz4Block(data, position, position + compressedLength, block);
+				output.write(block, 0, block.length);
+
+			} else
+				throw new IOException("Unsupported LZ4 block method " + method);
+
+			position += compressedLength;
+		}
+
+		return output.toByteArray();
+	}
+
+	/*
+	 * Decompress a single raw LZ4 block into the given output of its original length
+	 */
+	private static void decompressLz4Block(byte[] source, int position, int end, byte[] output) throws IOException {
+		int written = 0;
+
+		while (position < end) {
+			final int token = source[position++] & 0xFF;
+			int literalLength = token >>> 4;
+
+			if (literalLength == 15) {
+				int next;
+
+				do {
+					next = source[position++] & 0xFF;
+					literalLength += next;
+				} while (next == 255);
+			}
+
+			if (written + literalLength > output.length || position + literalLength > end)
+				throw new IOException("Corrupted LZ4 block");
+
+			System.arraycopy(source, position, output, written, literalLength);
+			position += literalLength;
+			written += literalLength;
+
+			// The last sequence only has literals
+			if (position >= end)
+				break;
+
+			final int offset = source[position] & 0xFF | (source[position + 1] & 0xFF) << 8;
+			position += 2;
+
+			int matchLength = token & 0x0F;
+
+			if (matchLength == 15) {
+				int next;
+
+				do {
+					next = source[position++] & 0xFF;
+					matchLength += next;
+				} while (next == 255);
+			}
+
+			matchLength += 4;
+
+			if (offset == 0 || offset > written || written + matchLength > output.length)
+				throw new IOException("Corrupted LZ4 block");
+
+			// Byte by byte since the match may overlap what we are writing
+			for (int i = 0; i < matchLength; i++, written++)
+				output[written] = output[written - offset];
+		}
+	}
+
+	/*
+	 * Read a little endian int
+	 */
+	private static int readIntLE(byte[] data, int position) {
+		return data[position] & 0xFF | (data[position + 1] & 0xFF) << 8 | (data[position + 2] & 0xFF) << 16 | (data[position + 3] & 0xFF) << 24;
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// NBT
+	// ------------------------------------------------------------------------------------------------------------
+
+	/*
+	 * Read the named root compound tag
+	 */
+	private static Map<String, Object> readRoot(DataInput input) throws IOException {
+		final int type = input.readByte();
+
+		if (type != 10)
+			throw new IOException("Root tag must be a compound, got type " + type);
+
+		input.readUTF();
+
+		return readCompound(input);
+	}
+
+	/*
+	 * Read compound entries until the end tag
+	 */
+	private static Map<String, Object> readCompound(DataInput input) throws IOException {
+		final Map<String, Object> compound = new LinkedHashMap<>();
+
+		while (true) {
+			final int type = input.readByte();
+
+			if (type == 0)
+				return compound;
+
+			compound.put(input.readUTF(), readPayload(type, input));
+		}
+	}
+
+	/*
+	 * Read the tag payload of the given type
+	 */
+	private static Object readPayload(int type, DataInput input) throws IOException {
+		switch (type) {
+			case 1:
+				return input.readByte();
+			case 2:
+				return input.readShort();
+			case 3:
+				return input.readInt();
+			case 4:
+				return input.readLong();
+			case 5:
+				return input.readFloat();
+			case 6:
+				return input.readDouble();
+			case 7: {
+				final byte[] array = new byte[checkLength(input.readInt())];
+
+				input.readFully(array);
+				return array;
+			}
+			case 8:
+				return input.readUTF();
+			case 9: {
+				final int elementType = input.readByte();
+				final int size = checkLength(input.readInt());
+				final List<Object> list = new ArrayList<>(size);
+
+				for (int i = 0; i < size; i++)
+					list.add(readPayload(elementType, input));
+
+				return list;
+			}
+			case 10:
+				return readCompound(input);
+			case 11: {
+				final int[] array = new int[checkLength(input.readInt())];
+
+				for (int i = 0; i < array.length; i++)
+					array[i] = input.readInt();
+
+				return array;
+			}
+			case 12: {
+				final long[] array = new long[checkLength(input.readInt())];
+
+				for (int i = 0; i < array.length; i++)
+					array[i] = input.readLong();
+
+				return array;
+			}
+			default:
+				throw new IOException("Unknown NBT tag type " + type);
+		}
+	}
+
+	/*
+	 * Guard against corrupted lengths allocating huge arrays
+	 */
+	private static int checkLength(int length) throws IOException {
+		if (length < 0 || length > 16 * 1024 * 1024)
+			throw new IOException("Invalid NBT array length " + length);
+
+		return length;
+	}
+}
@@ -0,0 +1,90 @@
+package org.mineacademy.fo.model;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.mineacademy.fo.BlockUtil;
+import org.mineacademy.fo.BlockUtil.BlockCursor;
+import org.mineacademy.fo.region.Region;
+
+/**
+ * A {@link ChunkedTask} walking all blocks in a cuboid in chunk-major order,
+ * processing the given amount of blocks on each run without ever building
+ * a list of all blocks, so that huge regions can be processed incrementally.
+ */
+public abstract class ChunkedBlockTask extends ChunkedTask {
+
+	/**
+	 * The cursor walking the blocks
+	 */
+	private final BlockCursor cursor;
+
+	/**
+	 * Create a new task walking all blocks in the given region
+	 *
+	 * @param region
+	 * @param processAmount
+	 */
+	public ChunkedBlockTask(Region region, int processAmount) {
+		this(region.getPrimary(), region.getSecondary(), processAmount);
+	}
+
+	/**
+	 * Create a new task walking all blocks in the given cuboid
+	 *
+	 * @param primary
+	 * @param secondary
+	 * @param processAmount
+	 */
+	public ChunkedBlockTask(Location primary, Location secondary, int processAmount) {
+		super(processAmount);
+
+		this.cursor = BlockUtil.getBlockCursor(primary, secondary);
+	}
+
+	/**
+	 * Create a new task walking all blocks in the given cuboid
+	 * and waiting the given amount of ticks between each run
+	 *
+	 * @param primary
+	 * @param secondary
+	 * @param processAmount
+	 * @param waitPeriodTicks
+	 */
+	public ChunkedBlockTask(Location primary, Location secondary, int processAmount, int waitPeriodTicks) {
+		super(processAmount, waitPeriodTicks);
+
+		this.cursor = BlockUtil.getBlockCursor(primary, secondary);
+	}
+
+	/**
+	 * @see org.mineacademy.fo.model.ChunkedTask#onProcess(int)
+	 */
+	@Override
+	protected final void onProcess(int index) throws Throwable {
+		this.onProcess(this.cursor.nextBlock());
+	}
+
+	/**
+	 * @see org.mineacademy.fo.model.ChunkedTask#canContinue(int)
+	 */
+	@Override
+	protected final boolean canContinue(int index) {
+		return this.cursor.hasNext();
+	}
+
+	/**
+	 * Called for each block in the cuboid
+	 *
+	 * @param block
+	 */
+	protected abstract void onProcess(Block block) throws Throwable;
+
+	/**
+	 * Return how many blocks are left to process
+	 *
+	 * @return
+	 */
+	public final long getRemaining() {
+		return this.cursor.getRemaining();
+	}
+}
@@ -2,14 +2,31 @@ package org.mineacademy.fo.model;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.World;
@@ -19,6 +36,7 @@ import org.mineacademy.fo.MinecraftVersion.V;
 import org.mineacademy.fo.ReflectionUtil;
 import org.mineacademy.fo.ReflectionUtil.ReflectionException;
 import org.mineacademy.fo.event.RegionScanCompleteEvent;
+import org.mineacademy.fo.event.RegionScanProgressEvent;
 import org.mineacademy.fo.plugin.SimplePlugin;
 import org.mineacademy.fo.remain.Remain;
 
@@ -28,6 +46,9 @@ import lombok.Setter;
 /**
  * A class that has ability to scan saved regions on the disk and execute
  * actions for each saved chunk.
+ *
+ * Scan progress is saved to a checkpoint file in the plugin folder so that
+ * a scan interrupted by a restart or crash can be continued with {@link #resume(World)}.
  */
 public abstract class OfflineRegionScanner {
 
@@ -41,19 +62,36 @@ public abstract class OfflineRegionScanner {
 	 */
 	private static final Pattern FILE_PATTERN = Pattern.compile("r\\.(.+)\\.(.+)\\.mca");
 
+	/**
+	 * The folder in the plugin folder where checkpoints are stored
+	 */
+	private static final String CHECKPOINT_FOLDER = "region-scans";
+
 	/**
 	 * Seconds between each file processing operation.
 	 */
 	private static int WAIT_TIME_BETWEEN_SCAN_SECONDS = 1;
 
+	/**
+	 * How many region files are read at once in async mode
+	 */
+	public static int ASYNC_WORKER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+	/**
+	 * The minimum time between saving the checkpoint to the disk, in milliseconds
+	 */
+	public static long CHECKPOINT_INTERVAL_MS = 5_000;
+
 	/**
 	 * Changing flag: How many files processed out of total?
 	 */
+	@Getter
 	private int processedFilesCount = 0;
 
 	/**
 	 * Changing flag: The total amount of region files to scan
 	 */
+	@Getter
 	private int totalFilesCount = 0;
 
 	/**
@@ -67,6 +105,11 @@ public abstract class OfflineRegionScanner {
 	 */
 	private long lastTick = System.currentTimeMillis();
 
+	/**
+	 * Changing flag: The progress of the running scan
+	 */
+	private Checkpoint checkpoint;
+
 	/**
 	 * In fast mode we wont load chunks only return their x-z coordinates
 	 *
@@ -77,16 +120,100 @@ public abstract class OfflineRegionScanner {
 	private boolean fastMode = false;
 
 	/**
-	 * Starts the scan for the given world (warning: this operation is blocking
+	 * In async mode we read region files directly from the disk on worker threads,
+	 * without touching the server, and pass the parsed chunk NBT to {@link #onChunkScanAsync(int, int, Map)}.
+	 * The world is saved before the scan starts, chunks changed afterwards are not reflected.
+	 *
+	 * Takes precedence over {@link #fastMode}.
+	 */
+	@Setter
+	private boolean asyncMode = false;
+
+	/*
+	 * Set when a chunk fails to scan in async mode to stop all workers
+	 */
+	private volatile boolean asyncAborted = false;
+
+	/*
+	 * Set when the async scan was stopped because the plugin is disabling or reloading
+	 */
+	private volatile boolean asyncStopped = false;
+
+	/*
+	 * The worker threads of the running async scan, or null if not running
+	 */
+	private volatile ExecutorService workers;
+
+	/*
+	 * Scanners running in async mode, stopped when the plugin disables or reloads
+	 */
+	private static final Set<OfflineRegionScanner> activeAsyncScans = ConcurrentHashMap.newKeySet();
+
+	/*
+	 * Numbers the worker threads
+	 */
+	private static final AtomicInteger workerCount = new AtomicInteger();
+
+	/**
+	 * Stop all running async scans, keeping their checkpoints so they can be resumed.
+	 * Called automatically when the plugin disables or reloads.
+	 */
+	public static void stopAsyncScans() {
+		for (final OfflineRegionScanner scanner : activeAsyncScans) {
+			scanner.asyncStopped = true;
+			scanner.asyncAborted = true;
+
+			final ExecutorService workers = scanner.workers;
+
+			if (workers != null)
+				workers.shutdownNow();
+
+			scanner.checkpoint.save();
+		}
+
+		activeAsyncScans.clear();
+	}
+
+	/**
+	 * Starts a new scan for the given world, discarding any saved progress (warning: this operation is blocking
 	 * and takes long time, see {@link #getEstimatedWaitTimeSec(World)})
 	 *
 	 * @param world
 	 */
 	public final void scan(World world) {
+		this.start(world, new Checkpoint(getCheckpointFile(world), this.getConfigurationHash()));
+	}
+
+	/**
+	 * Continues the scan for the given world from its checkpoint, skipping region files
+	 * and chunks already scanned. Starts a new scan if there is no checkpoint or it was
+	 * saved with a different scan configuration, see {@link #getScanConfiguration()}
+	 *
+	 * @param world
+	 */
+	public final void resume(World world) {
+		final Checkpoint checkpoint = Checkpoint.load(getCheckpointFile(world));
+
+		if (checkpoint == null || checkpoint.configurationHash != this.getConfigurationHash()) {
+			Common.log("No matching region scan checkpoint found for " + world.getName() + ", starting a new scan.");
+
+			this.scan(world);
+			return;
+		}
+
+		this.start(world, checkpoint);
+	}
+
+	/*
+	 * Start scanning with the given progress
+	 */
+	private void start(World world, Checkpoint checkpoint) {
 		final boolean hadAutoSave = world.isAutoSave();
 
 		try {
 			world.setAutoSave(false);
+
+			this.checkpoint = checkpoint;
 			this.scan0(world);
 
 		} finally {
@@ -104,9 +231,6 @@ public abstract class OfflineRegionScanner {
 				"Scanning regions in " + world.getName(),
 				Common.consoleLine());
 
-		// Disable watch dog
-		this.disableWatchdog();
-
 		// Collect files
 		final File[] files = getRegionFiles(world);
 
@@ -116,12 +240,33 @@ public abstract class OfflineRegionScanner {
 			return;
 		}
 
-		final Queue<File> queue = new LimitedQueue<>(files.length + 1);
-		queue.addAll(Arrays.asList(files));
+		final List<File> remaining = new ArrayList<>();
+
+		for (final File file : files)
+			if (!this.checkpoint.isDone(file.getName()))
+				remaining.add(file);
 
 		this.totalFilesCount = files.length;
+		this.processedFilesCount = files.length - remaining.size();
 		this.world = world;
 
+		if (this.processedFilesCount > 0)
+			Common.log("Resuming from checkpoint, " + this.processedFilesCount + "/" + this.totalFilesCount + " region files already scanned.");
+
+		this.checkpoint.save();
+
+		if (this.asyncMode) {
+			this.scanAsync0(remaining);
+
+			return;
+		}
+
+		// Disable watch dog
+		this.disableWatchdog();
+
+		final Queue<File> queue = new LimitedQueue<>(remaining.size() + 1);
+		queue.addAll(remaining);
+
 		// Start the schedule
 		this.schedule0(queue);
 	}
@@ -159,6 +304,8 @@ public abstract class OfflineRegionScanner {
 							"Region scanner finished. World saved.",
 							Common.consoleLine());
 
+					OfflineRegionScanner.this.checkpoint.delete();
+
 					Common.callEvent(new RegionScanCompleteEvent(OfflineRegionScanner.this.world));
 
 					OfflineRegionScanner.this.onScanFinished();
@@ -172,6 +319,132 @@ public abstract class OfflineRegionScanner {
 		}.runTask(SimplePlugin.getInstance());
 	}
 
+	/*
+	 * Read all region files on worker threads and finish on the main thread
+	 */
+	private void scanAsync0(List<File> files) {
+
+		// Make sure the disk reflects the current world
+		this.world.save();
+
+		final ExecutorService workers = Executors.newFixedThreadPool(ASYNC_WORKER_THREADS, task -> {
+			final Thread thread = new Thread(task, "Region Scanner #" + workerCount.incrementAndGet());
+
+			// Never keep the server from shutting down
+			thread.setDaemon(true);
+			return thread;
+		});
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
+		final AtomicInteger processed = new AtomicInteger(this.processedFilesCount);
+
+		this.asyncAborted = false;
+		this.asyncStopped = false;
+		this.workers = workers;
+
+		activeAsyncScans.add(this);
+
+		for (final File file : files)
+			futures.add(CompletableFuture.runAsync(() -> {
+				if (this.asyncAborted)
+					return;
+
+				if (!this.scanFileAsync(file))
+					return;
+
+				final int processedCount = processed.incrementAndGet();
+
+				this.processedFilesCount = processedCount;
+				this.checkpoint.markDone(file.getName());
+				this.checkpoint.saveIfDue();
+
+				this.onFileScanned(file, processedCount);
+			}, workers));
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).whenComplete((unused, error) -> {
+			workers.shutdown();
+
+			this.workers = null;
+			activeAsyncScans.remove(this);
+
+			// Stopped by the plugin disabling, the checkpoint is saved and we cannot schedule anymore
+			if (this.asyncStopped)
+				return;
+
+			// Keep the checkpoint so that the scan can be resumed after the issue is fixed
+			if (this.asyncAborted)
+				this.checkpoint.save();
+			else
+				this.checkpoint.delete();
+
+			Common.runLater(() -> {
+				Common.log(
+						Common.consoleLine(),
+						"Region scanner finished" + (this.asyncAborted ? " with errors, use resume to continue." : "."),
+						Common.consoleLine());
+
+				Common.callEvent(new RegionScanCompleteEvent(this.world));
+
+				this.onScanFinished();
+			});
+		});
+	}
+
+	/*
+	 * Read the given region file and pass each saved chunk to the async callback,
+	 * returning false if the scan was aborted before the file was finished
+	 */
+	private boolean scanFileAsync(File file) {
+		final Matcher matcher = FILE_PATTERN.matcher(file.getName());
+
+		if (!matcher.matches())
+			return true;
+
+		final int regionX = Integer.parseInt(matcher.group(1));
+		final int regionZ = Integer.parseInt(matcher.group(2));
+
+		final AnvilRegionFile region;
+
+		try {
+			region = AnvilRegionFile.open(file);
+
+		} catch (final Throwable t) {
+			Common.error(t, "Failed to open region file " + file + ", skipping");
+
+			return true;
+		}
+
+		final String fileName = file.getName();
+
+		for (int index = this.checkpoint.getChunkIndex(fileName); index < 32 * 32; index++) {
+			if (this.asyncAborted)
+				return false;
+
+			final int x = index >> 5;
+			final int z = index & 31;
+
+			if (!region.isChunkSaved(x, z))
+				continue;
+
+			final int chunkX = x + (regionX << 5);
+			final int chunkZ = z + (regionZ << 5);
+
+			try {
+				this.onChunkScanAsync(chunkX, chunkZ, region.readChunkNbt(x, z));
+
+			} catch (final Throwable t) {
+				Common.error(t, "Failed to scan chunk " + chunkX + " " + chunkZ + " in " + file + ", aborting for safety");
+
+				this.asyncAborted = true;
+				return false;
+			}
+
+			this.checkpoint.setChunkIndex(fileName, index + 1);
+			this.checkpoint.saveIfDue();
+		}
+
+		return true;
+	}
+
 	/*
 	 * Scans the given region file
 	 */
@@ -183,55 +456,66 @@ public abstract class OfflineRegionScanner {
 
 		final int regionX = Integer.parseInt(matcher.group(1));
 		final int regionZ = Integer.parseInt(matcher.group(2));
+		final String fileName = file.getName();
 
-		System.out.print("[" + Math.round((double) this.processedFilesCount++ / (double) this.totalFilesCount * 100) + "%] Processing " + file);
+		String status = "[" + Math.round((double) this.processedFilesCount / (double) this.totalFilesCount * 100) + "%] Processing " + file;
 
 		// Calculate time, collect memory and increase pauses in between if running out of memory
 		if (System.currentTimeMillis() - this.lastTick > 4000) {
 			final long free = Runtime.getRuntime().freeMemory() / 1_000_000;
 
 			if (free < 200) {
-				System.out.print(" [Low memory (" + free + "Mb)! Running GC and increasing delay between operations ..]");
+				Common.log(status + " [Low memory (" + free + "Mb)! Running GC and increasing delay between operations ..]");
 
 				WAIT_TIME_BETWEEN_SCAN_SECONDS = +2;
 
 				System.gc();
 				Common.sleep(5_000);
+
+				status = null;
 			} else
-				System.out.print(" [free memory = " + free + " mb]");
+				status += " [free memory = " + free + " mb]";
 
 			this.lastTick = System.currentTimeMillis();
 		}
 
-		System.out.println();
+		if (status != null)
+			Common.log(status);
 
 		// Load the file
 		final Object region = RegionAccessor.getRegionFile(this.world.getName(), file);
 
-		// Load each chunk within that file
-		scan:
-		for (int x = 0; x < 32; x++)
-			for (int z = 0; z < 32; z++) {
-				final int chunkX = x + (regionX << 5);
-				final int chunkZ = z + (regionZ << 5);
+		boolean aborted = false;
 
-				if (RegionAccessor.isChunkSaved(region, x, z))
-					if (this.fastMode)
-						this.onChunkScanFast(chunkX, chunkZ);
+		// Load each chunk within that file, continuing where we left off
+		for (int index = this.checkpoint.getChunkIndex(fileName); index < 32 * 32; index++) {
+			final int x = index >> 5;
+			final int z = index & 31;
 
-					else {
-						final Chunk chunk = this.world.getChunkAt(chunkX, chunkZ);
+			final int chunkX = x + (regionX << 5);
+			final int chunkZ = z + (regionZ << 5);
 
-						try {
-							this.onChunkScan(chunk);
+			if (RegionAccessor.isChunkSaved(region, x, z))
+				if (this.fastMode)
+					this.onChunkScanFast(chunkX, chunkZ);
 
-						} catch (final Throwable t) {
-							Common.error(t, "Failed to scan chunk " + chunk + ", aborting for safety");
+				else {
+					final Chunk chunk = this.world.getChunkAt(chunkX, chunkZ);
 
-							break scan;
-						}
+					try {
+						this.onChunkScan(chunk);
+
+					} catch (final Throwable t) {
+						Common.error(t, "Failed to scan chunk " + chunk + ", aborting for safety");
+
+						aborted = true;
+						break;
 					}
-			}
+				}
+
+			this.checkpoint.setChunkIndex(fileName, index + 1);
+			this.checkpoint.saveIfDue();
+		}
 
 		// Save
 		try {
@@ -242,6 +526,27 @@ public abstract class OfflineRegionScanner {
 			Remain.sneaky(t);
 		}
 
+		// Keep the file unfinished so that resume continues from the failed chunk
+		if (aborted) {
+			this.checkpoint.save();
+
+			Common.log(
+					Common.consoleLine(),
+					"Region scanner stopped with errors, use resume to continue.",
+					Common.consoleLine());
+
+			Common.callEvent(new RegionScanCompleteEvent(this.world));
+
+			this.onScanFinished();
+			return;
+		}
+
+		this.processedFilesCount++;
+		this.checkpoint.markDone(fileName);
+		this.checkpoint.saveIfDue();
+
+		this.onFileScanned(file, this.processedFilesCount);
+
 		if (this.fastMode)
 			this.schedule0(queue);
 
@@ -250,6 +555,33 @@ public abstract class OfflineRegionScanner {
 
 	}
 
+	/*
+	 * Report progress after a region file has been fully scanned
+	 */
+	private void onFileScanned(File file, int processedCount) {
+		if (this.asyncMode)
+			Common.log("[" + Math.round((double) processedCount / this.totalFilesCount * 100) + "%] Processed " + file.getName());
+
+		Common.callEvent(new RegionScanProgressEvent(this.world, file.getName(), processedCount, this.totalFilesCount));
+	}
+
+	/*
+	 * Return the hash of the settings the checkpoint was made with
+	 */
+	private int getConfigurationHash() {
+		return Objects.hash(this.getClass().getName(), this.fastMode, this.asyncMode, this.getScanConfiguration());
+	}
+
+	/**
+	 * Return a description of any settings of your scanner which change what is done
+	 * with each chunk. A checkpoint made with a different configuration is not resumed.
+	 *
+	 * @return
+	 */
+	protected String getScanConfiguration() {
+		return "";
+	}
+
 	/**
 	 * Called when a chunk is being scanned and loaded
 	 * ONLY CALLED WHEN FASTMODE IS NOT ENABLED (by default)
@@ -269,6 +601,20 @@ public abstract class OfflineRegionScanner {
 	protected void onChunkScanFast(int chunkX, int chunkZ) {
 	}
 
+	/**
+	 * Called for each saved chunk with its parsed NBT data
+	 * ONLY CALLED WHEN ASYNCMODE IS ENABLED
+	 *
+	 * This is called from worker threads, several chunks may be scanned at once,
+	 * see {@link AnvilRegionFile} for how NBT tags are represented.
+	 *
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param nbt
+	 */
+	protected void onChunkScanAsync(int chunkX, int chunkZ, Map<String, Object> nbt) {
+	}
+
 	/**
 	 * Called when the scan is finished, after {@link RegionScanCompleteEvent}
 	 */
@@ -279,6 +625,23 @@ public abstract class OfflineRegionScanner {
 	// Static
 	// ------------------------------------------------------------------------------------------------------------
 
+	/**
+	 * Return true if there is an unfinished scan for the given world which can be resumed
+	 *
+	 * @param world
+	 * @return
+	 */
+	public static boolean hasCheckpoint(World world) {
+		return getCheckpointFile(world).exists();
+	}
+
+	/*
+	 * Return the checkpoint file for the given world
+	 */
+	private static File getCheckpointFile(World world) {
+		return new File(SimplePlugin.getData(), CHECKPOINT_FOLDER + "/" + world.getName() + ".checkpoint");
+	}
+
 	/**
 	 * Return all region files stored on the disk for the given world
 	 *
@@ -320,6 +683,117 @@ public abstract class OfflineRegionScanner {
 
 		return (int) (Math.round(WAIT_TIME_BETWEEN_SCAN_SECONDS * 1.5D) * files.length);
 	}
+
+	/*
+	 * The progress of a scan saved on the disk, safe to use from multiple threads.
+	 *
+	 * The file has one entry per line: "config <hash>", "done <file>" for finished
+	 * region files and "file <file> <chunk index>" for partially scanned files.
+	 */
+	private static final class Checkpoint {
+
+		private final File file;
+		private final int configurationHash;
+		private final Set<String> doneFiles = new HashSet<>();
+		private final Map<String, Integer> chunkIndexes = new HashMap<>();
+		private long lastSave;
+
+		private Checkpoint(File file, int configurationHash) {
+			this.file = file;
+			this.configurationHash = configurationHash;
+		}
+
+		private synchronized boolean isDone(String fileName) {
+			return this.doneFiles.contains(fileName);
+		}
+
+		private synchronized int getChunkIndex(String fileName) {
+			return this.chunkIndexes.getOrDefault(fileName, 0);
+		}
+
+		private synchronized void setChunkIndex(String fileName, int index) {
+			this.chunkIndexes.put(fileName, index);
+		}
+
+		private synchronized void markDone(String fileName) {
+			this.chunkIndexes.remove(fileName);
+			this.doneFiles.add(fileName);
+		}
+
+		private synchronized void saveIfDue() {
+			if (System.currentTimeMillis() - this.lastSave >= CHECKPOINT_INTERVAL_MS)
+				this.save();
+		}
+
+		/*
+		 * Write to a temporary file first so that a crash while saving cannot corrupt the checkpoint
+		 */
+		private synchronized void save() {
+			final List<String> lines = new ArrayList<>(this.doneFiles.size() + this.chunkIndexes.size() + 1);
+
+			lines.add("config " + this.configurationHash);
+
+			for (final String fileName : this.doneFiles)
+				lines.add("done " + fileName);
+
+			for (final Map.Entry<String, Integer> entry : this.chunkIndexes.entrySet())
+				lines.add("file " + entry.getKey() + " " + entry.getValue());
+
+			try {
+				final File temporary = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+
+				this.file.getParentFile().mkdirs();
+
+				Files.write(temporary.toPath(), lines, StandardCharsets.UTF_8);
+				Files.move(temporary.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			} catch (final IOException ex) {
+				Common.error(ex, "Failed to save region scan checkpoint to " + this.file);
+			}
+
+			this.lastSave = System.currentTimeMillis();
+		}
+
+		private synchronized void delete() {
+			this.file.delete();
+		}
+
+		/*
+		 * Load the checkpoint from the given file, or return null if it does not exist or is corrupted
+		 */
+		@Nullable
+		private static Checkpoint load(File file) {
+			if (!file.exists())
+				return null;
+
+			try {
+				Checkpoint checkpoint = null;
+
+				for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+					final String[] parts = line.split(" ");
+
+					if (parts[0].equals("config"))
+						checkpoint = new Checkpoint(file, Integer.parseInt(parts[1]));
+
+					else if (checkpoint == null)
+						return null;
+
+					else if (parts[0].equals("done"))
+						checkpoint.doneFiles.add(parts[1]);
+
+					else if (parts[0].equals("file"))
+						checkpoint.chunkIndexes.put(parts[1], Integer.parseInt(parts[2]));
+				}
+
+				return checkpoint;
+
+			} catch (final IOException | RuntimeException ex) {
+				Common.error(ex, "Failed to read region scan checkpoint from " + file + ", starting over");
+
+				return null;
+			}
+		}
+	}
 }
 
 /**
@@ -92,7 +92,7 @@ public abstract class RandomNoRepeatPicker<T> {
 			return null;
 
 		while (!this.list.isEmpty()) {
-			final T picked = this.list.remove(RandomUtil.nextInt(this.list.size()));
+			final T picked = this.removeRandom();
 
 			if (picked != null && this.canObtain(player, picked))
 				return picked;
@@ -101,6 +101,19 @@ public abstract class RandomNoRepeatPicker<T> {
 		return null;
 	}
 
+	/*
+	 * Remove a random item by moving the last item into its place, the order does not matter to us
+	 */
+	private T removeRandom() {
+		final int index = RandomUtil.nextInt(this.list.size());
+		final T last = this.list.remove(this.list.size() - 1);
+
+		if (index == this.list.size())
+			return last;
+
+		return this.list.set(index, last);
+	}
+
 	/**
 	 * Return the remaining count of elements
 	 *
@@ -355,6 +355,7 @@ final class AutoRegisterScanner {
 				enchantListenersRegistered = true;
 
 				plugin.registerEvents(SimpleEnchantment.Listener.getInstance());
+				SimpleEnchantment.Listener.getInstance().registerOptionalListeners();
 
 				if (Bukkit.getPluginManager().getPlugin("ProtocolLib") != null)
 					FoundationPacketListener.getInstance().onRegister();
@@ -26,6 +26,7 @@ import org.mineacademy.fo.model.SimpleComponent;
 import org.mineacademy.fo.model.SimpleScoreboard;
 import org.mineacademy.fo.model.SpigotUpdater;
 import org.mineacademy.fo.settings.SimpleLocalization;
+import org.mineacademy.fo.visual.BlockVisualizer;
 
 /**
  * Listens for some events we handle for you automatically
@@ -35,6 +36,7 @@ final class FoundationListener implements Listener {
 	@EventHandler(priority = EventPriority.HIGHEST)
 	public void onQuit(PlayerQuitEvent event) {
 		SimpleScoreboard.clearBoardsFor(event.getPlayer());
+		BlockVisualizer.forget(event.getPlayer());
 	}
 
 	@EventHandler(priority = EventPriority.HIGHEST)
@@ -41,6 +41,11 @@ public final class DiskRegion extends YamlConfig {
 	 */
 	private static final ConfigItems<DiskRegion> loadedRegions = ConfigItems.fromFolder("regions", DiskRegion.class);
 
+	/**
+	 * The spatial index of loaded regions, used to quickly find regions at a location
+	 */
+	private static final RegionIndex<DiskRegion> regionIndex = new RegionIndex<>(DiskRegion::getBorder);
+
 	/**
 	 * The way for us to get the created region for a player, which is typically used in PlayerCache
 	 * in plugins and this class is not available at the library level.
@@ -88,6 +93,7 @@ public final class DiskRegion extends YamlConfig {
 
 		// Only load if not created via command
 		if (this.border != null) {
+			this.border.setBoundsListener(this::onBorderChange);
 			this.save();
 
 			return;
@@ -109,13 +115,32 @@ public final class DiskRegion extends YamlConfig {
 			else
 				Common.error(ex, "Failed to load region from map: " + map);
 		}
+
+		if (this.border != null)
+			this.border.setBoundsListener(this::onBorderChange);
+
+		regionIndex.update(this);
 	}
 
+	/*
+	 * Move the region in the index when its points change, unless it was removed
+	 */
+	private void onBorderChange() {
+		if (loadedRegions.findItem(this.getName()) == this)
+			regionIndex.update(this);
+	}
+
+	/**
+	 * Saves the region, call {@link #save()} after you change the region points
+	 * to store them on disk. The region index is updated as soon as the points change.
+	 */
 	@Override
 	public void onSave() {
 		if (this.border != null)
 			for (final Map.Entry<String, Object> entry : this.border.serialize().entrySet())
 				this.set(entry.getKey(), entry.getValue());
+
+		regionIndex.update(this);
 	}
 
 	/**
@@ -243,6 +268,8 @@ public final class DiskRegion extends YamlConfig {
 	 * @see ConfigItems#loadItems()
 	 */
 	public static void loadRegions() {
+		regionIndex.clear();
+
 		loadedRegions.loadItems();
 	}
 
@@ -252,6 +279,8 @@ public final class DiskRegion extends YamlConfig {
 	 */
 	public static void removeRegion(final DiskRegion region) {
 		loadedRegions.removeItem(region);
+
+		regionIndex.remove(region);
 	}
 
 	/**
@@ -289,13 +318,19 @@ public final class DiskRegion extends YamlConfig {
 	 * @return
 	 */
 	public static List<DiskRegion> findRegions(final Location location) {
-		final List<DiskRegion> foundRegions = new ArrayList<>();
-
-		for (final DiskRegion region : getRegions())
-			if (region.border != null && region.border.isWhole() && region.border.isWithin(location))
-				foundRegions.add(region);
+		return regionIndex.find(location);
+	}
 
-		return foundRegions;
+	/**
+	 * Return regions for each of the given locations, in the same order
+	 * as the locations are given. Faster than calling {@link #findRegions(Location)}
+	 * for each location when many of them lie in the same chunk.
+	 *
+	 * @param locations
+	 * @return
+	 */
+	public static List<List<DiskRegion>> findRegions(final List<Location> locations) {
+		return regionIndex.find(locations);
 	}
 
 	/**
@@ -307,9 +342,8 @@ public final class DiskRegion extends YamlConfig {
 	public static List<String> findRegionNames(final Location location) {
 		final List<String> foundRegions = new ArrayList<>();
 
-		for (final DiskRegion region : getRegions())
-			if (region.border != null && region.border.isWhole() && region.border.isWithin(location))
-				foundRegions.add(region.getName());
+		for (final DiskRegion region : regionIndex.find(location))
+			foundRegions.add(region.getName());
 
 		return foundRegions;
 	}
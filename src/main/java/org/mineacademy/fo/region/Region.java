@@ -1,16 +1,21 @@
 package org.mineacademy.fo.region;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import javax.annotation.Nullable;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
@@ -25,6 +30,7 @@ import org.mineacademy.fo.exception.FoException;
 import org.mineacademy.fo.model.ConfigSerializable;
 import org.mineacademy.fo.remain.CompMaterial;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -51,6 +57,20 @@ public class Region implements ConfigSerializable {
 	 */
 	private Location secondary;
 
+	/*
+	 * The normalized block bounds, world UID and whether both points share the same world,
+	 * cached when the points change so that containment checks do not allocate
+	 */
+	private int minX, minY, minZ, maxX, maxY, maxZ;
+	private UUID worldUid;
+	private boolean sameWorld;
+
+	/*
+	 * Run after the bounds change, used by DiskRegion to keep its region index up to date
+	 */
+	@Setter(AccessLevel.PACKAGE)
+	private Runnable boundsListener;
+
 	/**
 	 * Create a new region
 	 *
@@ -82,35 +102,73 @@ public class Region implements ConfigSerializable {
 
 			this.secondary = secondary;
 		}
+
+		this.updateBounds();
 	}
 
 	/*
-	 * Change primary/secondary around to make secondary always the lowest point
+	 * Recalculate the cached bounds and world, called each time a point changes
 	 */
-	private Location[] getCorrectedPoints() {
-		if (this.primary == null || this.secondary == null)
-			return null;
+	private void updateBounds() {
+		if (this.primary == null || this.secondary == null) {
+			this.worldUid = null;
+			this.sameWorld = false;
 
-		final World world = getWorld();
+			this.notifyBoundsChange();
+			return;
+		}
 
 		final int x1 = this.primary.getBlockX(), x2 = this.secondary.getBlockX(),
 				y1 = this.primary.getBlockY(), y2 = this.secondary.getBlockY(),
 				z1 = this.primary.getBlockZ(), z2 = this.secondary.getBlockZ();
 
-		final Location primary = this.primary.clone();
-		final Location secondary = this.secondary.clone();
+		this.minX = Math.min(x1, x2);
+		this.minY = Math.min(y1, y2);
+		this.minZ = Math.min(z1, z2);
+		this.maxX = Math.max(x1, x2);
+		this.maxY = Math.max(y1, y2);
+		this.maxZ = Math.max(z1, z2);
+
+		final World primaryWorld = this.primary.getWorld();
+		final World secondaryWorld = this.secondary.getWorld();
+
+		this.worldUid = primaryWorld != null ? primaryWorld.getUID() : null;
+		this.sameWorld = primaryWorld != null && secondaryWorld != null && primaryWorld.getName().equals(secondaryWorld.getName());
+
+		this.notifyBoundsChange();
+	}
+
+	/*
+	 * Call the bounds change hook and listener
+	 */
+	private void notifyBoundsChange() {
+		this.onBoundsChange();
+
+		if (this.boundsListener != null)
+			this.boundsListener.run();
+	}
 
-		primary.setX(Math.min(x1, x2));
-		primary.setY(Math.min(y1, y2));
-		primary.setZ(Math.min(z1, z2));
-		primary.setWorld(world);
+	/**
+	 * Called when the primary or secondary point changes, including from the constructor,
+	 * so do not rely on subclass fields being initialized here. Use to invalidate
+	 * data derived from the region bounds.
+	 */
+	protected void onBoundsChange() {
+	}
 
-		secondary.setX(Math.max(x1, x2));
-		secondary.setY(Math.max(y1, y2));
-		secondary.setZ(Math.max(z1, z2));
-		secondary.setWorld(world);
+	/*
+	 * Change primary/secondary around to make secondary always the lowest point
+	 */
+	private Location[] getCorrectedPoints() {
+		if (this.primary == null || this.secondary == null)
+			return null;
 
-		return new Location[] {primary, secondary};
+		final World world = getWorld();
+
+		return new Location[] {
+				new Location(world, this.minX, this.minY, this.minZ),
+				new Location(world, this.maxX, this.maxY, this.maxZ)
+		};
 	}
 
 	/**
@@ -121,14 +179,10 @@ public class Region implements ConfigSerializable {
 	public final Location getCenter() {
 		Valid.checkBoolean(this.isWhole(), "Cannot perform getCenter on a non-complete region: " + this.toString());
 
-		final Location[] centered = this.getCorrectedPoints();
-		final Location primary = centered[0];
-		final Location secondary = centered[1];
-
-		return new Location(primary.getWorld(),
-				(primary.getX() + secondary.getX()) / 2,
-				(primary.getY() + secondary.getY()) / 2,
-				(primary.getZ() + secondary.getZ()) / 2);
+		return new Location(this.getWorld(),
+				(this.minX + this.maxX) / 2D,
+				(this.minY + this.maxY) / 2D,
+				(this.minZ + this.maxZ) / 2D);
 	}
 
 	/**
@@ -192,6 +246,9 @@ public class Region implements ConfigSerializable {
 	/**
 	 * Count all blocks within this region
 	 *
+	 * This builds a list of all blocks, for large regions see {@link #getBlockCursor()}
+	 * or {@link #visitBlocks(Predicate)} instead.
+	 *
 	 * @return
 	 */
 	public final List<Block> getBlocks() {
@@ -201,6 +258,58 @@ public class Region implements ConfigSerializable {
 		return BlockUtil.getBlocks(centered[0], centered[1]);
 	}
 
+	/**
+	 * Return a cursor walking all blocks within this region in chunk-major order
+	 * without building a list, use this instead of {@link #getBlocks()} for large regions
+	 *
+	 * @return
+	 */
+	public final BlockUtil.BlockCursor getBlockCursor() {
+		Valid.checkBoolean(this.isWhole(), "Cannot perform getBlockCursor on a non-complete region: " + this.toString());
+		final Location[] centered = this.getCorrectedPoints();
+
+		return BlockUtil.getBlockCursor(centered[0], centered[1]);
+	}
+
+	/**
+	 * Visit all blocks within this region in chunk-major order without building a list
+	 *
+	 * @param visitor return false to stop visiting
+	 * @return true if all blocks were visited, false if the visitor stopped early
+	 */
+	public final boolean visitBlocks(@NonNull final Predicate<Block> visitor) {
+		Valid.checkBoolean(this.isWhole(), "Cannot perform visitBlocks on a non-complete region: " + this.toString());
+		final Location[] centered = this.getCorrectedPoints();
+
+		return BlockUtil.visitBlocks(centered[0], centered[1], visitor);
+	}
+
+	/**
+	 * Visit all block coordinates within this region in chunk-major order without creating blocks
+	 *
+	 * @param visitor return false to stop visiting
+	 * @return true if all positions were visited, false if the visitor stopped early
+	 */
+	public final boolean visitPositions(@NonNull final BlockUtil.PositionVisitor visitor) {
+		Valid.checkBoolean(this.isWhole(), "Cannot perform visitPositions on a non-complete region: " + this.toString());
+		final Location[] centered = this.getCorrectedPoints();
+
+		return BlockUtil.visitPositions(centered[0], centered[1], visitor);
+	}
+
+	/**
+	 * Take snapshots of the loaded chunks in this region and scan them off the main thread,
+	 * counting blocks by material, building a heightmap and collecting positions of matched blocks.
+	 * Must be called from the main thread, the future completes on a worker thread.
+	 *
+	 * @param matcher the materials whose positions to collect, or null to collect none
+	 * @return
+	 * @see RegionAnalysis
+	 */
+	public final CompletableFuture<RegionAnalysis> analyzeAsync(@Nullable final Predicate<Material> matcher) {
+		return RegionAnalysis.capture(this, matcher);
+	}
+
 	/**
 	 * Return locations representing the bounding box of a cuboid region,
 	 * used when rendering particle effects
@@ -216,21 +325,114 @@ public class Region implements ConfigSerializable {
 	/**
 	 * Count all entities within this region
 	 *
+	 * This loads all chunks the region touches, see {@link #getLoadedEntities()}
+	 * for a variant that only looks into loaded chunks.
+	 *
 	 * @return
 	 */
 	public final List<Entity> getEntities() {
 		Valid.checkBoolean(this.isWhole(), "Cannot perform getEntities on a non-complete region: " + this.toString());
 
-		final List<Entity> found = new LinkedList<>();
+		final List<Entity> found = new ArrayList<>();
+		final Location scratch = new Location(null, 0, 0, 0);
 
 		for (final Chunk chunk : getChunks())
-			for (final Entity entity : chunk.getEntities())
-				if (entity.isValid() && entity.getLocation() != null && isWithin(entity.getLocation()))
-					found.add(entity);
+			this.collectEntities(chunk, scratch, found::add);
 
 		return found;
 	}
 
+	/**
+	 * Return all entities within this region in chunks that are already loaded,
+	 * never loading or generating chunks. Must be called from the main thread,
+	 * on Folia use {@link #forEachLoadedEntityAsync(Consumer)} instead.
+	 *
+	 * @return
+	 */
+	public final List<Entity> getLoadedEntities() {
+		final List<Entity> found = new ArrayList<>();
+
+		this.forEachLoadedEntity(found::add);
+
+		return found;
+	}
+
+	/**
+	 * Pass all entities within this region in chunks that are already loaded to the consumer,
+	 * chunk by chunk, never loading or generating chunks. Must be called from the main thread.
+	 *
+	 * @param consumer
+	 */
+	public final void forEachLoadedEntity(@NonNull final Consumer<Entity> consumer) {
+		Valid.checkBoolean(this.isWhole(), "Cannot perform forEachLoadedEntity on a non-complete region: " + this.toString());
+
+		final World world = this.getWorld();
+		final Location scratch = new Location(null, 0, 0, 0);
+
+		for (int chunkX = this.minX >> 4; chunkX <= this.maxX >> 4; chunkX++)
+			for (int chunkZ = this.minZ >> 4; chunkZ <= this.maxZ >> 4; chunkZ++)
+				if (world.isChunkLoaded(chunkX, chunkZ))
+					this.collectEntities(world.getChunkAt(chunkX, chunkZ), scratch, consumer);
+	}
+
+	/**
+	 * Pass all entities within this region in chunks that are already loaded to the consumer,
+	 * running each chunk on the thread that owns it. On Folia, this is the region thread of
+	 * each chunk so the consumer may be called from several threads at once, elsewhere all
+	 * chunks are processed on the main thread on the next tick.
+	 *
+	 * @param consumer
+	 * @return a future completed when all chunks have been processed
+	 */
+	public final CompletableFuture<Void> forEachLoadedEntityAsync(@NonNull final Consumer<Entity> consumer) {
+		Valid.checkBoolean(this.isWhole(), "Cannot perform forEachLoadedEntityAsync on a non-complete region: " + this.toString());
+
+		final World world = this.getWorld();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+		for (int chunkX = this.minX >> 4; chunkX <= this.maxX >> 4; chunkX++)
+			for (int chunkZ = this.minZ >> 4; chunkZ <= this.maxZ >> 4; chunkZ++) {
+				final int finalChunkX = chunkX;
+				final int finalChunkZ = chunkZ;
+				final CompletableFuture<Void> future = new CompletableFuture<>();
+
+				Common.runAtChunk(world, chunkX, chunkZ, () -> {
+					try {
+						if (world.isChunkLoaded(finalChunkX, finalChunkZ))
+							this.collectEntities(world.getChunkAt(finalChunkX, finalChunkZ), new Location(null, 0, 0, 0), consumer);
+
+						future.complete(null);
+
+					} catch (final Throwable t) {
+						future.completeExceptionally(t);
+					}
+				});
+
+				futures.add(future);
+			}
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+	}
+
+	/*
+	 * Pass valid entities of the chunk within this region to the consumer, reusing the scratch location
+	 */
+	private void collectEntities(final Chunk chunk, final Location scratch, final Consumer<Entity> consumer) {
+		for (final Entity entity : chunk.getEntities()) {
+			if (!entity.isValid())
+				continue;
+
+			entity.getLocation(scratch);
+
+			final int x = (int) scratch.getX();
+			final int y = (int) scratch.getY();
+			final int z = (int) scratch.getZ();
+
+			if (x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY && z >= this.minZ && z <= this.maxZ)
+				consumer.accept(entity);
+		}
+	}
+
 	/**
 	 * Gets the chunks in this region
 	 *
@@ -241,14 +443,10 @@ public class Region implements ConfigSerializable {
 
 		final List<Chunk> chunks = new ArrayList<>();
 
-		final Location[] centered = getCorrectedPoints();
-		final Location primary = centered[0];
-		final Location secondary = centered[1];
-
-		final int xMin = (int) primary.getX() >> 4;
-		final int xMax = (int) secondary.getX() >> 4;
-		final int zMin = (int) primary.getZ() >> 4;
-		final int zMax = (int) secondary.getZ() >> 4;
+		final int xMin = this.minX >> 4;
+		final int xMax = this.maxX >> 4;
+		final int zMin = this.minZ >> 4;
+		final int zMax = this.maxZ >> 4;
 
 		final World world = getWorld();
 
@@ -268,11 +466,17 @@ public class Region implements ConfigSerializable {
 		if (!this.isWhole())
 			return null;
 
-		World primaryWorld = Bukkit.getWorld(primary.getWorld().getName());
-		World secondaryWorld = Bukkit.getWorld(secondary.getWorld().getName());
+		Valid.checkBoolean(this.sameWorld, "Worlds of this region not the same: " + this.primary.getWorld() + " != " + this.secondary.getWorld());
+		return Bukkit.getWorld(this.worldUid);
+	}
 
-		Valid.checkBoolean(primaryWorld.getName().equals(secondaryWorld.getName()), "Worlds of this region not the same: " + primaryWorld + " != " + secondaryWorld);
-		return primaryWorld;
+	/**
+	 * Get the UID of the world of this region, or null if the region is not whole
+	 *
+	 * @return
+	 */
+	public final UUID getWorldUid() {
+		return this.isWhole() ? this.worldUid : null;
 	}
 
 	/**
@@ -285,20 +489,76 @@ public class Region implements ConfigSerializable {
 	public final boolean isWithin(@NonNull final Location location) {
 		Valid.checkBoolean(this.isWhole(), "Cannot perform isWithin on a non-complete region: " + this.toString());
 
-		if (!location.getWorld().getName().equals(this.primary.getWorld().getName()))
-			return false;
+		final World world = location.getWorld();
 
-		final Location[] centered = this.getCorrectedPoints();
-		final Location primary = centered[0];
-		final Location secondary = centered[1];
+		return world != null && this.isWithin((int) location.getX(), (int) location.getY(), (int) location.getZ(), world.getUID());
+	}
 
-		final int x = (int) location.getX();
-		final int y = (int) location.getY();
-		final int z = (int) location.getZ();
+	/**
+	 * Return true if the given block coordinates in the given world are within this region.
+	 * This does not allocate and is safe to call from hot event handlers.
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param world the world UID
+	 *
+	 * @return
+	 */
+	public final boolean isWithin(final int x, final int y, final int z, @NonNull final UUID world) {
+		Valid.checkBoolean(this.isWhole(), "Cannot perform isWithin on a non-complete region: " + this.toString());
 
-		return x >= primary.getX() && x <= secondary.getX()
-				&& y >= primary.getY() && y <= secondary.getY()
-				&& z >= primary.getZ() && z <= secondary.getZ();
+		return world.equals(this.worldUid)
+				&& x >= this.minX && x <= this.maxX
+				&& y >= this.minY && y <= this.maxY
+				&& z >= this.minZ && z <= this.maxZ;
+	}
+
+	/**
+	 * Return a new list of entities from the given collection that are within this region
+	 *
+	 * @param <T>
+	 * @param entities
+	 *
+	 * @return
+	 */
+	public final <T extends Entity> List<T> filterWithin(@NonNull final Collection<T> entities) {
+		final List<T> found = new ArrayList<>();
+
+		this.filterWithin(entities, found);
+
+		return found;
+	}
+
+	/**
+	 * Add entities from the given collection that are within this region to the given collection,
+	 * reusing a single location for all entities.
+	 *
+	 * @param <T>
+	 * @param entities
+	 * @param into where to add found entities
+	 *
+	 * @return how many entities were added
+	 */
+	public final <T extends Entity> int filterWithin(@NonNull final Collection<T> entities, @NonNull final Collection<? super T> into) {
+		Valid.checkBoolean(this.isWhole(), "Cannot perform filterWithin on a non-complete region: " + this.toString());
+
+		final Location scratch = new Location(null, 0, 0, 0);
+		int count = 0;
+
+		for (final T entity : entities) {
+			entity.getLocation(scratch);
+
+			final World world = scratch.getWorld();
+
+			if (world != null && this.isWithin((int) scratch.getX(), (int) scratch.getY(), (int) scratch.getZ(), world.getUID())) {
+				into.add(entity);
+
+				count++;
+			}
+		}
+
+		return count;
 	}
 
 	/**
@@ -375,18 +635,16 @@ public class Region implements ConfigSerializable {
 	public final boolean isWithinXZ(@NonNull final Location location) {
 		Valid.checkBoolean(this.isWhole(), "Cannot perform isWithinXZ on a non-complete region: " + this.toString());
 
-		if (!location.getWorld().getName().equals(this.primary.getWorld().getName()))
-			return false;
+		final World world = location.getWorld();
 
-		final Location[] centered = this.getCorrectedPoints();
-		final Location primary = centered[0];
-		final Location secondary = centered[1];
+		if (world == null || !world.getUID().equals(this.worldUid))
+			return false;
 
 		final int x = (int) location.getX();
 		final int z = (int) location.getZ();
 
-		return x >= primary.getX() && x <= secondary.getX()
-				&& z >= primary.getZ() && z <= secondary.getZ();
+		return x >= this.minX && x <= this.maxX
+				&& z >= this.minZ && z <= this.maxZ;
 	}
 
 	/**
@@ -401,19 +659,29 @@ public class Region implements ConfigSerializable {
 	/**
 	 * Set the primary region point
 	 *
+	 * The region bounds are cached from the location, if you modify
+	 * the location afterwards, call this method again.
+	 *
 	 * @param primary
 	 */
 	public final void setPrimary(final Location primary) {
 		this.primary = primary;
+
+		this.updateBounds();
 	}
 
 	/**
 	 * Set the secondary region point
 	 *
+	 * The region bounds are cached from the location, if you modify
+	 * the location afterwards, call this method again.
+	 *
 	 * @param secondary
 	 */
 	public final void setSecondary(final Location secondary) {
 		this.secondary = secondary;
+
+		this.updateBounds();
 	}
 
 	/**
@@ -0,0 +1,332 @@
+package org.mineacademy.fo.region;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.mineacademy.fo.BlockUtil;
+import org.mineacademy.fo.MinecraftVersion;
+import org.mineacademy.fo.MinecraftVersion.V;
+import org.mineacademy.fo.Valid;
+import org.mineacademy.fo.remain.CompMaterial;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * The result of scanning a region off the main thread, see {@link #capture(Region, Predicate)}.
+ *
+ * Only the chunk snapshots are taken on the main thread, each chunk is then
+ * scanned on a worker thread in parallel and the results are merged together.
+ * Chunks that were not loaded when the scan started are skipped.
+ *
+ * Requires Minecraft 1.13 or newer.
+ */
+public final class RegionAnalysis {
+
+	/**
+	 * Value in the heightmap for columns with no non-air blocks
+	 */
+	public static final int NO_BLOCK = Integer.MIN_VALUE;
+
+	/*
+	 * Air materials by their ordinal, so we do not compare names for each block
+	 */
+	private static boolean[] airMaterials;
+
+	/**
+	 * The cuboid bounds that were scanned
+	 */
+	@Getter
+	private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+	/*
+	 * Block counts by material ordinal
+	 */
+	private final long[] counts;
+
+	/*
+	 * Packed positions of matched blocks, see BlockUtil#toBlockKey
+	 */
+	private final long[] matchedPositions;
+
+	/*
+	 * Highest non-air block y for each x-z column, indexed by (x - minX) * depth + (z - minZ)
+	 */
+	private final int[] heightmap;
+
+	/**
+	 * How many chunks were scanned
+	 */
+	@Getter
+	private final int scannedChunks;
+
+	/**
+	 * How many chunks were skipped because they were not loaded
+	 */
+	@Getter
+	private final int skippedChunks;
+
+	private RegionAnalysis(int[] bounds, long[] counts, long[] matchedPositions, int[] heightmap, int scannedChunks, int skippedChunks) {
+		this.minX = bounds[0];
+		this.minY = bounds[1];
+		this.minZ = bounds[2];
+		this.maxX = bounds[3];
+		this.maxY = bounds[4];
+		this.maxZ = bounds[5];
+		this.counts = counts;
+		this.matchedPositions = matchedPositions;
+		this.heightmap = heightmap;
+		this.scannedChunks = scannedChunks;
+		this.skippedChunks = skippedChunks;
+	}
+
+	/**
+	 * Return how many blocks of the given material were found
+	 *
+	 * @param material
+	 * @return
+	 */
+	public long getCount(@NonNull Material material) {
+		return this.counts[material.ordinal()];
+	}
+
+	/**
+	 * Return a material to block count map of all materials found
+	 *
+	 * @return
+	 */
+	public Map<Material, Long> getMaterialCounts() {
+		final Material[] materials = Material.values();
+		final Map<Material, Long> histogram = new HashMap<>();
+
+		for (int i = 0; i < this.counts.length; i++)
+			if (this.counts[i] > 0)
+				histogram.put(materials[i], this.counts[i]);
+
+		return histogram;
+	}
+
+	/**
+	 * Return the most common materials found, most common first
+	 *
+	 * @param limit
+	 * @param includeAir
+	 * @return
+	 */
+	public List<Material> getTopMaterials(int limit, boolean includeAir) {
+		final List<Material> materials = new ArrayList<>();
+
+		for (final Map.Entry<Material, Long> entry : this.getMaterialCounts().entrySet())
+			if (includeAir || !airMaterials[entry.getKey().ordinal()])
+				materials.add(entry.getKey());
+
+		materials.sort((first, second) -> Long.compare(this.counts[second.ordinal()], this.counts[first.ordinal()]));
+
+		return materials.size() > limit ? new ArrayList<>(materials.subList(0, limit)) : materials;
+	}
+
+	/**
+	 * Return true if any block matched the matcher given when capturing
+	 *
+	 * @return
+	 */
+	public boolean hasMatches() {
+		return this.matchedPositions.length > 0;
+	}
+
+	/**
+	 * Return packed positions of blocks that matched the matcher given when capturing,
+	 * see {@link BlockUtil#toBlockKey(int, int, int)} to unpack them
+	 *
+	 * @return
+	 */
+	public long[] getMatchedPositions() {
+		return this.matchedPositions.clone();
+	}
+
+	/**
+	 * Return the highest non-air block y at the given x-z column,
+	 * or {@link #NO_BLOCK} if the column has none or was not scanned
+	 *
+	 * @param x
+	 * @param z
+	 * @return
+	 */
+	public int getHighestBlockY(int x, int z) {
+		if (x < this.minX || x > this.maxX || z < this.minZ || z > this.maxZ)
+			return NO_BLOCK;
+
+		return this.heightmap[(x - this.minX) * (this.maxZ - this.minZ + 1) + z - this.minZ];
+	}
+
+	@Override
+	public String toString() {
+		return "RegionAnalysis{scanned=" + this.scannedChunks + " chunks, skipped=" + this.skippedChunks + ", matches=" + this.matchedPositions.length + "}";
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Static
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Take snapshots of the loaded chunks of the region on the main thread and scan them
+	 * in parallel on worker threads. The returned future completes on a worker thread,
+	 * use Common#runLater to get back to the main thread if needed.
+	 *
+	 * @param region
+	 * @param matcher the materials whose positions to collect, or null to collect none
+	 * @return
+	 */
+	public static CompletableFuture<RegionAnalysis> capture(@NonNull Region region, @Nullable Predicate<Material> matcher) {
+		Valid.checkBoolean(MinecraftVersion.atLeast(V.v1_13), "Region analysis requires Minecraft 1.13 or newer");
+		Valid.checkBoolean(region.isWhole(), "Cannot analyze a non-complete region: " + region);
+		Valid.checkSync("Region analysis must be started on the main thread, only the scanning runs async");
+
+		final World world = region.getWorld();
+		final Location primary = region.getPrimary();
+		final Location secondary = region.getSecondary();
+
+		final int minHeight = MinecraftVersion.atLeast(V.v1_18) ? world.getMinHeight() : 0;
+		final int maxHeight = world.getMaxHeight() - 1;
+
+		final int[] bounds = {
+				Math.min(primary.getBlockX(), secondary.getBlockX()),
+				Math.max(minHeight, Math.min(primary.getBlockY(), secondary.getBlockY())),
+				Math.min(primary.getBlockZ(), secondary.getBlockZ()),
+				Math.max(primary.getBlockX(), secondary.getBlockX()),
+				Math.min(maxHeight, Math.max(primary.getBlockY(), secondary.getBlockY())),
+				Math.max(primary.getBlockZ(), secondary.getBlockZ())
+		};
+
+		if (airMaterials == null) {
+			final Material[] materials = Material.values();
+			final boolean[] air = new boolean[materials.length];
+
+			for (final Material material : materials)
+				air[material.ordinal()] = CompMaterial.isAir(material);
+
+			airMaterials = air;
+		}
+
+		final List<CompletableFuture<ChunkResult>> futures = new ArrayList<>();
+		int skipped = 0;
+
+		for (int chunkX = bounds[0] >> 4; chunkX <= bounds[3] >> 4; chunkX++)
+			for (int chunkZ = bounds[2] >> 4; chunkZ <= bounds[5] >> 4; chunkZ++) {
+				if (!world.isChunkLoaded(chunkX, chunkZ)) {
+					skipped++;
+
+					continue;
+				}
+
+				final ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+
+				futures.add(CompletableFuture.supplyAsync(() -> scanChunk(snapshot, bounds, matcher)));
+			}
+
+		final int skippedChunks = skipped;
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(unused -> {
+			final long[] counts = new long[airMaterials.length];
+			final int depth = bounds[5] - bounds[2] + 1;
+			final int[] heightmap = new int[(bounds[3] - bounds[0] + 1) * depth];
+			int matchedTotal = 0;
+
+			for (final CompletableFuture<ChunkResult> future : futures)
+				matchedTotal += future.join().matchedCount;
+
+			final long[] matched = new long[matchedTotal];
+			int matchedOffset = 0;
+
+			Arrays.fill(heightmap, NO_BLOCK);
+
+			for (final CompletableFuture<ChunkResult> future : futures) {
+				final ChunkResult result = future.join();
+
+				for (int i = 0; i < counts.length; i++)
+					counts[i] += result.counts[i];
+
+				for (int x = result.startX; x <= result.endX; x++)
+					System.arraycopy(result.heightmap, (x - result.startX) * result.depth, heightmap, (x - bounds[0]) * depth + result.startZ - bounds[2], result.depth);
+
+				System.arraycopy(result.matched, 0, matched, matchedOffset, result.matchedCount);
+				matchedOffset += result.matchedCount;
+			}
+
+			return new RegionAnalysis(bounds, counts, matched, heightmap, futures.size(), skippedChunks);
+		});
+	}
+
+	/*
+	 * Scan the part of the chunk snapshot within the bounds, top down
+	 */
+	private static ChunkResult scanChunk(ChunkSnapshot snapshot, int[] bounds, @Nullable Predicate<Material> matcher) {
+		final int baseX = snapshot.getX() << 4;
+		final int baseZ = snapshot.getZ() << 4;
+
+		final ChunkResult result = new ChunkResult(
+				Math.max(bounds[0], baseX), Math.min(bounds[3], baseX | 15),
+				Math.max(bounds[2], baseZ), Math.min(bounds[5], baseZ | 15));
+
+		for (int x = result.startX; x <= result.endX; x++)
+			for (int z = result.startZ; z <= result.endZ; z++) {
+				final int column = (x - result.startX) * result.depth + z - result.startZ;
+
+				for (int y = bounds[4]; y >= bounds[1]; y--) {
+					final Material material = snapshot.getBlockType(x & 15, y, z & 15);
+					final int ordinal = material.ordinal();
+
+					result.counts[ordinal]++;
+
+					if (result.heightmap[column] == NO_BLOCK && !airMaterials[ordinal])
+						result.heightmap[column] = y;
+
+					if (matcher != null && matcher.test(material))
+						result.addMatch(BlockUtil.toBlockKey(x, y, z));
+				}
+			}
+
+		return result;
+	}
+
+	/*
+	 * Partial result of scanning a single chunk
+	 */
+	private static final class ChunkResult {
+
+		private final int startX, endX, startZ, endZ, depth;
+		private final long[] counts = new long[airMaterials.length];
+		private final int[] heightmap;
+		private long[] matched = new long[16];
+		private int matchedCount;
+
+		private ChunkResult(int startX, int endX, int startZ, int endZ) {
+			this.startX = startX;
+			this.endX = endX;
+			this.startZ = startZ;
+			this.endZ = endZ;
+			this.depth = endZ - startZ + 1;
+			this.heightmap = new int[(endX - startX + 1) * this.depth];
+
+			Arrays.fill(this.heightmap, NO_BLOCK);
+		}
+
+		private void addMatch(long position) {
+			if (this.matchedCount == this.matched.length)
+				this.matched = Arrays.copyOf(this.matched, this.matched.length * 2);
+
+			this.matched[this.matchedCount++] = position;
+		}
+	}
+}
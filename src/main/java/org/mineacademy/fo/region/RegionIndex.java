@@ -0,0 +1,319 @@
+package org.mineacademy.fo.region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import lombok.NonNull;
+
+/**
+ * A chunk-keyed spatial index over cuboid regions, so that finding regions
+ * at a location only checks regions overlapping the location's chunk
+ * instead of every region loaded.
+ *
+ * Regions spanning more than {@link #MAX_INDEXED_CHUNKS} chunks are not put
+ * into the grid (they would fill it with too many cells) and are checked
+ * linearly instead, there are typically only a few of these.
+ *
+ * The index stores a snapshot of the region bounds, call {@link #update(Object)}
+ * after you change the region points ({@link DiskRegion} does this automatically).
+ * This class is not thread-safe and is meant to be used from the main thread.
+ *
+ * @param <T> the indexed item, such as a {@link Region} or a {@link DiskRegion}
+ */
+public final class RegionIndex<T> {
+
+	/**
+	 * Regions covering more chunks than this are kept outside the grid
+	 */
+	private static final int MAX_INDEXED_CHUNKS = 4096;
+
+	/**
+	 * How we get the region from the indexed item, return null if the item has none
+	 */
+	private final Function<T, Region> regionGetter;
+
+	/**
+	 * The world name to world index map
+	 */
+	private final Map<String, WorldIndex<T>> worlds = new HashMap<>();
+
+	/**
+	 * The currently indexed entries, so we can remove them later
+	 */
+	private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+
+	/**
+	 * Create a new region index
+	 *
+	 * @param regionGetter how to get the region from the indexed item, may return null
+	 */
+	public RegionIndex(@NonNull Function<T, Region> regionGetter) {
+		this.regionGetter = regionGetter;
+	}
+
+	/**
+	 * Add the item to the index, or reindex it if its region has changed.
+	 * Items with no or incomplete region are removed from the index.
+	 *
+	 * @param item
+	 */
+	public void update(@NonNull T item) {
+		this.remove(item);
+
+		final Region region = this.regionGetter.apply(item);
+
+		if (region == null || !region.isWhole())
+			return;
+
+		final Location primary = region.getPrimary();
+		final Location secondary = region.getSecondary();
+
+		if (primary.getWorld() == null)
+			return;
+
+		final Entry<T> entry = new Entry<>(item, primary.getWorld().getName(),
+				Math.min(primary.getBlockX(), secondary.getBlockX()), Math.min(primary.getBlockY(), secondary.getBlockY()), Math.min(primary.getBlockZ(), secondary.getBlockZ()),
+				Math.max(primary.getBlockX(), secondary.getBlockX()), Math.max(primary.getBlockY(), secondary.getBlockY()), Math.max(primary.getBlockZ(), secondary.getBlockZ()));
+
+		final WorldIndex<T> world = this.worlds.computeIfAbsent(entry.world, name -> new WorldIndex<>());
+		final long chunks = (long) ((entry.maxX >> 4) - (entry.minX >> 4) + 1) * ((entry.maxZ >> 4) - (entry.minZ >> 4) + 1);
+
+		if (chunks > MAX_INDEXED_CHUNKS)
+			world.large.add(entry);
+
+		else
+			for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++)
+				for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++)
+					world.cells.computeIfAbsent(toChunkKey(chunkX, chunkZ), key -> new ArrayList<>(2)).add(entry);
+
+		this.entries.put(item, entry);
+	}
+
+	/**
+	 * Remove the item from the index, if indexed
+	 *
+	 * @param item
+	 */
+	public void remove(@NonNull T item) {
+		final Entry<T> entry = this.entries.remove(item);
+
+		if (entry == null)
+			return;
+
+		final WorldIndex<T> world = this.worlds.get(entry.world);
+
+		if (world == null)
+			return;
+
+		if (!world.large.remove(entry))
+			for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++)
+				for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++) {
+					final long key = toChunkKey(chunkX, chunkZ);
+					final List<Entry<T>> cell = world.cells.get(key);
+
+					if (cell != null) {
+						cell.remove(entry);
+
+						if (cell.isEmpty())
+							world.cells.remove(key);
+					}
+				}
+
+		if (world.cells.isEmpty() && world.large.isEmpty())
+			this.worlds.remove(entry.world);
+	}
+
+	/**
+	 * Remove all items from the index
+	 */
+	public void clear() {
+		this.worlds.clear();
+		this.entries.clear();
+	}
+
+	/**
+	 * Return true if the item is indexed
+	 *
+	 * @param item
+	 * @return
+	 */
+	public boolean isIndexed(T item) {
+		return this.entries.containsKey(item);
+	}
+
+	/**
+	 * Return items whose region contains the given location
+	 *
+	 * @param location
+	 * @return
+	 */
+	public List<T> find(@NonNull Location location) {
+		final World world = location.getWorld();
+
+		if (world == null)
+			return new ArrayList<>();
+
+		return this.find(world.getName(), (int) location.getX(), (int) location.getY(), (int) location.getZ());
+	}
+
+	/**
+	 * Return items whose region contains the given block coordinates
+	 *
+	 * @param worldName
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public List<T> find(@NonNull String worldName, int x, int y, int z) {
+		final List<T> found = new ArrayList<>();
+		final WorldIndex<T> world = this.worlds.get(worldName);
+
+		if (world != null)
+			collect(world, world.cells.get(toChunkKey(x >> 4, z >> 4)), x, y, z, found);
+
+		return found;
+	}
+
+	/**
+	 * Return items whose region contains each of the given locations,
+	 * in the same order as the locations are given. Locations next to each other
+	 * within the same chunk reuse the looked up cell.
+	 *
+	 * @param locations
+	 * @return
+	 */
+	public List<List<T>> find(@NonNull List<Location> locations) {
+		final List<List<T>> found = new ArrayList<>(locations.size());
+
+		String lastWorldName = null;
+		WorldIndex<T> lastWorld = null;
+		long lastKey = 0;
+		List<Entry<T>> lastCell = null;
+
+		for (final Location location : locations) {
+			final World bukkitWorld = location.getWorld();
+
+			if (bukkitWorld == null) {
+				found.add(new ArrayList<>());
+
+				continue;
+			}
+
+			final String worldName = bukkitWorld.getName();
+			final int x = (int) location.getX(), y = (int) location.getY(), z = (int) location.getZ();
+			final long key = toChunkKey(x >> 4, z >> 4);
+
+			if (!worldName.equals(lastWorldName)) {
+				lastWorldName = worldName;
+				lastWorld = this.worlds.get(worldName);
+				lastCell = lastWorld != null ? lastWorld.cells.get(key) : null;
+				lastKey = key;
+
+			} else if (key != lastKey) {
+				lastCell = lastWorld != null ? lastWorld.cells.get(key) : null;
+				lastKey = key;
+			}
+
+			final List<T> result = new ArrayList<>();
+
+			if (lastWorld != null)
+				collect(lastWorld, lastCell, x, y, z, result);
+
+			found.add(result);
+		}
+
+		return found;
+	}
+
+	/**
+	 * Return all items indexed
+	 *
+	 * @return
+	 */
+	public List<T> getItems() {
+		return Collections.unmodifiableList(new ArrayList<>(this.entries.keySet()));
+	}
+
+	/*
+	 * Add items from the given cell and large regions containing the point
+	 */
+	private static <T> void collect(WorldIndex<T> world, @Nullable List<Entry<T>> cell, int x, int y, int z, List<T> found) {
+		if (cell != null)
+			for (int i = 0; i < cell.size(); i++) {
+				final Entry<T> entry = cell.get(i);
+
+				if (entry.contains(x, y, z))
+					found.add(entry.item);
+			}
+
+		for (int i = 0; i < world.large.size(); i++) {
+			final Entry<T> entry = world.large.get(i);
+
+			if (entry.contains(x, y, z))
+				found.add(entry.item);
+		}
+	}
+
+	/**
+	 * Pack the chunk coordinates into a single long
+	 *
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return
+	 */
+	public static long toChunkKey(int chunkX, int chunkZ) {
+		return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+	}
+
+	/*
+	 * Holds the grid and large regions for a single world
+	 */
+	private static final class WorldIndex<T> {
+
+		/**
+		 * Packed chunk key to regions overlapping that chunk
+		 */
+		private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+
+		/**
+		 * Regions too large to be put into cells
+		 */
+		private final List<Entry<T>> large = new ArrayList<>();
+	}
+
+	/*
+	 * A snapshot of the normalized region bounds
+	 */
+	private static final class Entry<T> {
+
+		private final T item;
+		private final String world;
+		private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+		private Entry(T item, String world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+			this.item = item;
+			this.world = world;
+			this.minX = minX;
+			this.minY = minY;
+			this.minZ = minZ;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.maxZ = maxZ;
+		}
+
+		private boolean contains(int x, int y, int z) {
+			return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY && z >= this.minZ && z <= this.maxZ;
+		}
+	}
+}
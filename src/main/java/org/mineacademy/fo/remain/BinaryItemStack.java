@@ -0,0 +1,1000 @@
+package org.mineacademy.fo.remain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.annotation.Nullable;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.mineacademy.fo.exception.FoException;
+import org.mineacademy.fo.remain.nbt.DataFixerUtil;
+import org.mineacademy.fo.remain.nbt.NBT;
+import org.mineacademy.fo.remain.nbt.NBTContainer;
+import org.mineacademy.fo.remain.nbt.NBTType;
+import org.mineacademy.fo.remain.nbt.ReadWriteNBT;
+import org.mineacademy.fo.remain.nbt.ReadWriteNBTCompoundList;
+import org.mineacademy.fo.remain.nbt.ReadWriteNBTList;
+import org.mineacademy.fo.remain.nbt.ReadableNBT;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * Converts {@link ItemStack} and {@link ItemStack}[] to a compact binary form,
+ * a smaller and faster alternative to {@link JsonItemStack}.
+ *
+ * Items are stored as the NBT the server itself keeps for them, with all keys and string values
+ * written only once per payload, and are upgraded using the data fixer when read on a newer server.
+ * Items whose NBT cannot be walked are stored using Bukkit's own serialization instead,
+ * which is only read back from trusted sources, see {@link #fromBytesArray(byte[], boolean)}.
+ *
+ * Use {@link #toBase64(ItemStack)} to store items where only text is accepted, such as
+ * JSON files, databases or {@link org.mineacademy.fo.SerializeUtil.Mode#BINARY}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BinaryItemStack {
+
+	/**
+	 * The prefix of Base64 encoded items, see {@link #isBase64(Object)}
+	 */
+	public static final String PREFIX = "fob:";
+
+	/**
+	 * The first two bytes of every payload
+	 */
+	private static final short MAGIC = (short) 0xF0B1;
+
+	/**
+	 * The format version, increase when making breaking changes
+	 */
+	private static final byte VERSION = 1;
+
+	/**
+	 * Set in the header if the body is deflated
+	 */
+	private static final byte FLAG_COMPRESSED = 1;
+
+	/**
+	 * Payloads smaller than this are never compressed since it would not save anything
+	 */
+	private static final int COMPRESSION_THRESHOLD = 256;
+
+	/**
+	 * Compressed payloads may not inflate to more bytes than this
+	 */
+	private static final int MAX_INFLATED_BYTES = 16 * 1024 * 1024;
+
+	/**
+	 * How an item is stored in the body
+	 */
+	private static final byte KIND_NULL = 0, KIND_NBT = 1, KIND_BUKKIT = 2;
+
+	/**
+	 * The data version of this server, or -1 if it cannot be upgraded to
+	 */
+	private static final int DATA_VERSION = resolveDataVersion();
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Encoding
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Return the item as Base64 string starting with {@link #PREFIX}, compressed if large enough
+	 *
+	 * @param item
+	 * @return
+	 */
+	public static String toBase64(@Nullable ItemStack item) {
+		return PREFIX + Base64.getEncoder().encodeToString(toBytes(item));
+	}
+
+	/**
+	 * Return the items as Base64 string starting with {@link #PREFIX}, compressed if large enough
+	 *
+	 * @param items
+	 * @return
+	 */
+	public static String toBase64(@NonNull ItemStack[] items) {
+		return PREFIX + Base64.getEncoder().encodeToString(toBytes(items));
+	}
+
+	/**
+	 * Return the item as bytes, compressed if large enough
+	 *
+	 * @param item
+	 * @return
+	 */
+	public static byte[] toBytes(@Nullable ItemStack item) {
+		return toBytes(new ItemStack[] { item }, true);
+	}
+
+	/**
+	 * Return the items as bytes, compressed if large enough
+	 *
+	 * @param items
+	 * @return
+	 */
+	public static byte[] toBytes(@NonNull ItemStack[] items) {
+		return toBytes(items, true);
+	}
+
+	/**
+	 * Return the items as bytes. Null and air items are kept at their positions.
+	 *
+	 * @param items
+	 * @param compress if true, we deflate the payload if that makes it smaller
+	 * @return
+	 */
+	public static byte[] toBytes(@NonNull ItemStack[] items, boolean compress) {
+		return toBytes(items, compress, true);
+	}
+
+	/**
+	 * Return the items as bytes. Null and air items are kept at their positions.
+	 *
+	 * Items whose NBT cannot be stored are written using Bukkit's serialization, pass false
+	 * to throw an exception instead when the bytes will be read with {@link #fromBytesArray(byte[], boolean)}
+	 * not allowing them, for example when sending plugin messages.
+	 *
+	 * @param items
+	 * @param compress if true, we deflate the payload if that makes it smaller
+	 * @param allowBukkit
+	 * @return
+	 */
+	public static byte[] toBytes(@NonNull ItemStack[] items, boolean compress, boolean allowBukkit) {
+		try {
+			final ByteArrayOutputStream body = new ByteArrayOutputStream();
+			final Writer writer = new Writer(new DataOutputStream(body), allowBukkit);
+
+			writer.writeVarInt(items.length);
+
+			for (final ItemStack item : items)
+				writer.writeItem(item);
+
+			writer.output.flush();
+
+			byte[] bodyBytes = body.toByteArray();
+			byte flags = 0;
+
+			if (compress && bodyBytes.length >= COMPRESSION_THRESHOLD) {
+				final byte[] deflated = deflate(bodyBytes);
+
+				if (deflated.length < bodyBytes.length) {
+					bodyBytes = deflated;
+					flags |= FLAG_COMPRESSED;
+				}
+			}
+
+			final ByteArrayOutputStream payload = new ByteArrayOutputStream(bodyBytes.length + 9);
+			final DataOutputStream output = new DataOutputStream(payload);
+
+			output.writeShort(MAGIC);
+			output.writeByte(VERSION);
+			output.writeByte(flags);
+			output.writeInt(DATA_VERSION);
+			output.write(bodyBytes);
+			output.flush();
+
+			return payload.toByteArray();
+
+		} catch (final IOException ex) {
+			throw new FoException(ex, "Failed to write " + items.length + " item(s) to bytes");
+		}
+	}
+
+	/*
+	 * Deflate the given bytes favoring speed
+	 */
+	private static byte[] deflate(byte[] bytes) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+		final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+		try (DeflaterOutputStream stream = new DeflaterOutputStream(output, deflater)) {
+			stream.write(bytes);
+
+		} finally {
+			deflater.end();
+		}
+
+		return output.toByteArray();
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Decoding
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Return true if the given object is a string made by {@link #toBase64(ItemStack)}
+	 * or {@link #toBase64(ItemStack[])}
+	 *
+	 * @param object
+	 * @return
+	 */
+	public static boolean isBase64(@Nullable Object object) {
+		return object instanceof String && ((String) object).startsWith(PREFIX);
+	}
+
+	/**
+	 * Return the first item from a string made by {@link #toBase64(ItemStack)}
+	 *
+	 * @param string
+	 * @return
+	 */
+	@Nullable
+	public static ItemStack fromBase64(@NonNull String string) {
+		return fromBytes(decodeBase64(string));
+	}
+
+	/**
+	 * Return the items from a string made by {@link #toBase64(ItemStack[])}
+	 *
+	 * @param string
+	 * @return
+	 */
+	public static ItemStack[] fromBase64Array(@NonNull String string) {
+		return fromBytesArray(decodeBase64(string));
+	}
+
+	/**
+	 * Return the first item from bytes made by {@link #toBytes(ItemStack)}
+	 *
+	 * @param bytes
+	 * @return
+	 */
+	@Nullable
+	public static ItemStack fromBytes(@NonNull byte[] bytes) {
+		return fromBytes(bytes, true);
+	}
+
+	/**
+	 * Return the first item from bytes made by {@link #toBytes(ItemStack)}
+	 *
+	 * @see #fromBytesArray(byte[], boolean)
+	 *
+	 * @param bytes
+	 * @param allowBukkit
+	 * @return
+	 */
+	@Nullable
+	public static ItemStack fromBytes(@NonNull byte[] bytes, boolean allowBukkit) {
+		final ItemStack[] items = fromBytesArray(bytes, allowBukkit);
+
+		return items.length > 0 ? items[0] : null;
+	}
+
+	/**
+	 * Return the items from bytes made by {@link #toBytes(ItemStack[])}
+	 *
+	 * @param bytes
+	 * @return
+	 */
+	public static ItemStack[] fromBytesArray(@NonNull byte[] bytes) {
+		return fromBytesArray(bytes, true);
+	}
+
+	/**
+	 * Return the items from bytes made by {@link #toBytes(ItemStack[])}
+	 *
+	 * Items stored using Bukkit's serialization are read with Java deserialization, which
+	 * must never be done on bytes coming from players or the network. Pass false to reject
+	 * such items with an exception instead, for example when reading plugin messages.
+	 *
+	 * @param bytes
+	 * @param allowBukkit
+	 * @return
+	 */
+	public static ItemStack[] fromBytesArray(@NonNull byte[] bytes, boolean allowBukkit) {
+		try {
+			final DataInputStream header = new DataInputStream(new ByteArrayInputStream(bytes));
+
+			if (header.readShort() != MAGIC)
+				throw new FoException("Not a binary item payload");
+
+			final byte version = header.readByte();
+
+			if (version > VERSION)
+				throw new FoException("Binary items were made by a newer version (" + version + "), this server only reads up to " + VERSION);
+
+			final byte flags = header.readByte();
+			final int dataVersion = header.readInt();
+
+			final boolean compressed = (flags & FLAG_COMPRESSED) != 0;
+
+			final Reader reader = new Reader(compressed ? new InflaterInputStream(header) : header, compressed ? MAX_INFLATED_BYTES : bytes.length, dataVersion, allowBukkit);
+			final ItemStack[] items = new ItemStack[reader.readLength(1)];
+
+			for (int i = 0; i < items.length; i++)
+				items[i] = reader.readItem();
+
+			return items;
+
+		} catch (final IOException | ClassNotFoundException ex) {
+			throw new FoException(ex, "Failed to read items from " + bytes.length + " bytes");
+		}
+	}
+
+	/*
+	 * Strip the prefix and decode the Base64 string
+	 */
+	private static byte[] decodeBase64(String string) {
+		if (!string.startsWith(PREFIX))
+			throw new FoException("Expected binary item string starting with '" + PREFIX + "', got: " + string);
+
+		return Base64.getDecoder().decode(string.substring(PREFIX.length()));
+	}
+
+	/*
+	 * Return the data version of this server, or -1 if the data fixer is not supported
+	 */
+	private static int resolveDataVersion() {
+		try {
+			return DataFixerUtil.getCurrentVersion();
+
+		} catch (final Throwable t) {
+			return -1;
+		}
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Classes
+	// ------------------------------------------------------------------------------------------------------------
+
+	/*
+	 * Thrown when the item NBT has tags we cannot walk, the item is then stored by Bukkit
+	 */
+	private static final class UnsupportedTagException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+	}
+
+	/*
+	 * Limits how many bytes can be read, so that lengths in the payload can be checked before allocating
+	 */
+	private static final class LimitedInputStream extends FilterInputStream {
+
+		/*
+		 * How many bytes can still be read
+		 */
+		private long remaining;
+
+		private LimitedInputStream(InputStream input, long limit) {
+			super(input);
+
+			this.remaining = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			this.checkRemaining(1);
+
+			final int read = super.read();
+
+			if (read != -1)
+				this.remaining--;
+
+			return read;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (length == 0)
+				return 0;
+
+			this.checkRemaining(1);
+
+			final int read = super.read(bytes, offset, (int) Math.min(length, this.remaining));
+
+			if (read != -1)
+				this.remaining -= read;
+
+			return read;
+		}
+
+		@Override
+		public long skip(long count) throws IOException {
+			final long skipped = super.skip(Math.min(count, this.remaining));
+
+			this.remaining -= skipped;
+			return skipped;
+		}
+
+		/*
+		 * Throw if the given amount of bytes cannot be read anymore
+		 */
+		private void checkRemaining(long count) throws IOException {
+			if (count > this.remaining)
+				throw new IOException("Binary item payload is larger than allowed");
+		}
+	}
+
+	/*
+	 * Writes items to the body, each string only once
+	 */
+	private static final class Writer {
+
+		/*
+		 * The output stream, swapped for a buffer while writing an item
+		 */
+		private DataOutputStream output;
+
+		/*
+		 * Strings already written and their index
+		 */
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		/*
+		 * Strings in the order they were written, used to forget strings from a failed item
+		 */
+		private final List<String> order = new ArrayList<>();
+
+		/*
+		 * Whether items may be stored using Bukkit's serialization
+		 */
+		private final boolean allowBukkit;
+
+		private Writer(DataOutputStream output, boolean allowBukkit) {
+			this.output = output;
+			this.allowBukkit = allowBukkit;
+		}
+
+		/*
+		 * Write the item as NBT, falling back to Bukkit serialization
+		 */
+		private void writeItem(@Nullable ItemStack item) throws IOException {
+			if (item == null || CompMaterial.isAir(item.getType())) {
+				this.output.writeByte(KIND_NULL);
+
+				return;
+			}
+
+			// Write to a buffer first so that we can discard it if we fail midway
+			final DataOutputStream output = this.output;
+			final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			final int mark = this.order.size();
+
+			this.output = new DataOutputStream(buffer);
+
+			try {
+				this.writeCompound(NBT.itemStackToNBT(item));
+				this.output.flush();
+
+				this.output = output;
+				this.output.writeByte(KIND_NBT);
+				buffer.writeTo(this.output);
+
+			} catch (final UnsupportedTagException ex) {
+				if (!this.allowBukkit)
+					throw new FoException("Cannot store " + item.getType() + " item as NBT and Bukkit serialization is not allowed here: " + item);
+
+				this.output = output;
+				this.forgetSince(mark);
+
+				final ByteArrayOutputStream bukkitBytes = new ByteArrayOutputStream();
+
+				try (BukkitObjectOutputStream stream = new BukkitObjectOutputStream(bukkitBytes)) {
+					stream.writeObject(item);
+				}
+
+				this.output.writeByte(KIND_BUKKIT);
+				this.writeVarInt(bukkitBytes.size());
+				bukkitBytes.writeTo(this.output);
+			}
+		}
+
+		/*
+		 * Write the compound as type-key-value entries, ended by a zero type
+		 */
+		private void writeCompound(ReadableNBT compound) throws IOException, UnsupportedTagException {
+			for (final String key : compound.getKeys()) {
+				final NBTType type = compound.getType(key);
+
+				this.output.writeByte(type.getId());
+				this.writeString(key);
+
+				switch (type) {
+					case NBTTagByte:
+						this.output.writeByte(compound.getByte(key));
+						break;
+
+					case NBTTagShort:
+						this.output.writeShort(compound.getShort(key));
+						break;
+
+					case NBTTagInt:
+						this.writeVarInt(compound.getInteger(key));
+						break;
+
+					case NBTTagLong:
+						this.output.writeLong(compound.getLong(key));
+						break;
+
+					case NBTTagFloat:
+						this.output.writeFloat(compound.getFloat(key));
+						break;
+
+					case NBTTagDouble:
+						this.output.writeDouble(compound.getDouble(key));
+						break;
+
+					case NBTTagByteArray:
+						final byte[] bytes = compound.getByteArray(key);
+
+						this.writeVarInt(bytes.length);
+						this.output.write(bytes);
+						break;
+
+					case NBTTagString:
+						this.writeString(compound.getString(key));
+						break;
+
+					case NBTTagIntArray:
+						this.writeIntArray(compound.getIntArray(key));
+						break;
+
+					case NBTTagLongArray:
+						final long[] longs = compound.getLongArray(key);
+
+						this.writeVarInt(longs.length);
+
+						for (final long value : longs)
+							this.output.writeLong(value);
+						break;
+
+					case NBTTagCompound:
+						this.writeCompound(compound.getCompound(key));
+						break;
+
+					case NBTTagList:
+						this.writeList(compound, key);
+						break;
+
+					default:
+						throw new UnsupportedTagException();
+				}
+			}
+
+			this.output.writeByte(NBTType.NBTTagEnd.getId());
+		}
+
+		/*
+		 * Write the list as its element type, size and elements
+		 */
+		private void writeList(ReadableNBT compound, String key) throws IOException, UnsupportedTagException {
+			final NBTType type = compound.getListType(key);
+
+			this.output.writeByte(type.getId());
+
+			switch (type) {
+				case NBTTagEnd:
+					break;
+
+				case NBTTagInt:
+					final List<Integer> ints = compound.getIntegerList(key).toListCopy();
+
+					this.writeVarInt(ints.size());
+
+					for (final int value : ints)
+						this.writeVarInt(value);
+					break;
+
+				case NBTTagLong:
+					final List<Long> longs = compound.getLongList(key).toListCopy();
+
+					this.writeVarInt(longs.size());
+
+					for (final long value : longs)
+						this.output.writeLong(value);
+					break;
+
+				case NBTTagFloat:
+					final List<Float> floats = compound.getFloatList(key).toListCopy();
+
+					this.writeVarInt(floats.size());
+
+					for (final float value : floats)
+						this.output.writeFloat(value);
+					break;
+
+				case NBTTagDouble:
+					final List<Double> doubles = compound.getDoubleList(key).toListCopy();
+
+					this.writeVarInt(doubles.size());
+
+					for (final double value : doubles)
+						this.output.writeDouble(value);
+					break;
+
+				case NBTTagString:
+					final List<String> strings = compound.getStringList(key).toListCopy();
+
+					this.writeVarInt(strings.size());
+
+					for (final String value : strings)
+						this.writeString(value);
+					break;
+
+				case NBTTagIntArray:
+					final List<int[]> arrays = compound.getIntArrayList(key).toListCopy();
+
+					this.writeVarInt(arrays.size());
+
+					for (final int[] value : arrays)
+						this.writeIntArray(value);
+					break;
+
+				case NBTTagCompound:
+					final List<ReadWriteNBT> compounds = compound.getCompoundList(key).toListCopy();
+
+					this.writeVarInt(compounds.size());
+
+					for (final ReadWriteNBT value : compounds)
+						this.writeCompound(value);
+					break;
+
+				// Lists of bytes, shorts, byte arrays, long arrays and lists are not exposed by the NBT API
+				default:
+					throw new UnsupportedTagException();
+			}
+		}
+
+		/*
+		 * Write the int array with its size
+		 */
+		private void writeIntArray(int[] array) throws IOException {
+			this.writeVarInt(array.length);
+
+			for (final int value : array)
+				this.output.writeInt(value);
+		}
+
+		/*
+		 * Write the index of the string if written before, otherwise zero and the string itself
+		 */
+		private void writeString(String string) throws IOException {
+			final Integer index = this.strings.get(string);
+
+			if (index != null) {
+				this.writeVarInt(index + 1);
+
+				return;
+			}
+
+			final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+			this.writeVarInt(0);
+			this.writeVarInt(bytes.length);
+			this.output.write(bytes);
+
+			this.strings.put(string, this.order.size());
+			this.order.add(string);
+		}
+
+		/*
+		 * Forget strings written since the given mark
+		 */
+		private void forgetSince(int mark) {
+			while (this.order.size() > mark)
+				this.strings.remove(this.order.remove(this.order.size() - 1));
+		}
+
+		/*
+		 * Write the number in as few bytes as possible, using zigzag so small negatives are short too
+		 */
+		private void writeVarInt(int value) throws IOException {
+			int zigzag = value << 1 ^ value >> 31;
+
+			while ((zigzag & ~0x7F) != 0) {
+				this.output.writeByte(zigzag & 0x7F | 0x80);
+
+				zigzag >>>= 7;
+			}
+
+			this.output.writeByte(zigzag);
+		}
+	}
+
+	/*
+	 * Reads items from the body
+	 */
+	private static final class Reader {
+
+		/*
+		 * The body with the amount of bytes left in it
+		 */
+		private final LimitedInputStream body;
+
+		/*
+		 * The input stream
+		 */
+		private final DataInputStream input;
+
+		/*
+		 * The data version the items were written on
+		 */
+		private final int dataVersion;
+
+		/*
+		 * Whether items stored using Bukkit's serialization may be read
+		 */
+		private final boolean allowBukkit;
+
+		/*
+		 * Strings read so far by their index
+		 */
+		private final List<String> strings = new ArrayList<>();
+
+		private Reader(InputStream body, int limit, int dataVersion, boolean allowBukkit) {
+			this.body = new LimitedInputStream(body, limit);
+			this.input = new DataInputStream(this.body);
+			this.dataVersion = dataVersion;
+			this.allowBukkit = allowBukkit;
+		}
+
+		/*
+		 * Read an item written by Writer#writeItem
+		 */
+		@Nullable
+		private ItemStack readItem() throws IOException, ClassNotFoundException {
+			final byte kind = this.input.readByte();
+
+			if (kind == KIND_NULL)
+				return null;
+
+			if (kind == KIND_BUKKIT) {
+				if (!this.allowBukkit)
+					throw new FoException("Refusing to read a Bukkit serialized item from an untrusted source");
+
+				final byte[] bytes = new byte[this.readLength(1)];
+				this.input.readFully(bytes);
+
+				try (BukkitObjectInputStream stream = new BukkitObjectInputStream(new ByteArrayInputStream(bytes))) {
+					return (ItemStack) stream.readObject();
+				}
+			}
+
+			if (kind != KIND_NBT)
+				throw new FoException("Unknown binary item kind " + kind);
+
+			ReadWriteNBT compound = new NBTContainer();
+			this.readCompound(compound);
+
+			if (this.dataVersion != -1 && DATA_VERSION != -1 && this.dataVersion < DATA_VERSION)
+				try {
+					compound = DataFixerUtil.fixUpItemData(compound, this.dataVersion, DATA_VERSION);
+
+				} catch (final ReflectiveOperationException ex) {
+					throw new FoException(ex, "Failed to upgrade item from data version " + this.dataVersion + " to " + DATA_VERSION + ": " + compound);
+				}
+
+			return NBT.itemStackFromNBT(compound);
+		}
+
+		/*
+		 * Read entries into the compound until the zero type
+		 */
+		private void readCompound(ReadWriteNBT compound) throws IOException {
+			NBTType type;
+
+			while ((type = NBTType.valueOf(this.input.readByte())) != NBTType.NBTTagEnd) {
+				final String key = this.readString();
+
+				switch (type) {
+					case NBTTagByte:
+						compound.setByte(key, this.input.readByte());
+						break;
+
+					case NBTTagShort:
+						compound.setShort(key, this.input.readShort());
+						break;
+
+					case NBTTagInt:
+						compound.setInteger(key, this.readVarInt());
+						break;
+
+					case NBTTagLong:
+						compound.setLong(key, this.input.readLong());
+						break;
+
+					case NBTTagFloat:
+						compound.setFloat(key, this.input.readFloat());
+						break;
+
+					case NBTTagDouble:
+						compound.setDouble(key, this.input.readDouble());
+						break;
+
+					case NBTTagByteArray:
+						final byte[] bytes = new byte[this.readLength(1)];
+
+						this.input.readFully(bytes);
+						compound.setByteArray(key, bytes);
+						break;
+
+					case NBTTagString:
+						compound.setString(key, this.readString());
+						break;
+
+					case NBTTagIntArray:
+						compound.setIntArray(key, this.readIntArray());
+						break;
+
+					case NBTTagLongArray:
+						final long[] longs = new long[this.readLength(8)];
+
+						for (int i = 0; i < longs.length; i++)
+							longs[i] = this.input.readLong();
+
+						compound.setLongArray(key, longs);
+						break;
+
+					case NBTTagCompound:
+						this.readCompound(compound.getOrCreateCompound(key));
+						break;
+
+					case NBTTagList:
+						this.readList(compound, key);
+						break;
+
+					default:
+						throw new FoException("Unknown binary item tag type " + type);
+				}
+			}
+		}
+
+		/*
+		 * Read a list written by Writer#writeList
+		 */
+		private void readList(ReadWriteNBT compound, String key) throws IOException {
+			final NBTType type = NBTType.valueOf(this.input.readByte());
+
+			if (type == NBTType.NBTTagEnd) {
+
+				// Empty list of unknown type, creates an empty tag
+				compound.getStringList(key);
+
+				return;
+			}
+
+			// Each element takes at least one byte
+			final int size = this.readLength(1);
+
+			switch (type) {
+				case NBTTagInt:
+					final ReadWriteNBTList<Integer> ints = compound.getIntegerList(key);
+
+					for (int i = 0; i < size; i++)
+						ints.add(this.readVarInt());
+					break;
+
+				case NBTTagLong:
+					final ReadWriteNBTList<Long> longs = compound.getLongList(key);
+
+					for (int i = 0; i < size; i++)
+						longs.add(this.input.readLong());
+					break;
+
+				case NBTTagFloat:
+					final ReadWriteNBTList<Float> floats = compound.getFloatList(key);
+
+					for (int i = 0; i < size; i++)
+						floats.add(this.input.readFloat());
+					break;
+
+				case NBTTagDouble:
+					final ReadWriteNBTList<Double> doubles = compound.getDoubleList(key);
+
+					for (int i = 0; i < size; i++)
+						doubles.add(this.input.readDouble());
+					break;
+
+				case NBTTagString:
+					final ReadWriteNBTList<String> strings = compound.getStringList(key);
+
+					for (int i = 0; i < size; i++)
+						strings.add(this.readString());
+					break;
+
+				case NBTTagIntArray:
+					final ReadWriteNBTList<int[]> arrays = compound.getIntArrayList(key);
+
+					for (int i = 0; i < size; i++)
+						arrays.add(this.readIntArray());
+					break;
+
+				case NBTTagCompound:
+					final ReadWriteNBTCompoundList compounds = compound.getCompoundList(key);
+
+					for (int i = 0; i < size; i++)
+						this.readCompound(compounds.addCompound());
+					break;
+
+				default:
+					throw new FoException("Unknown binary item list type " + type);
+			}
+		}
+
+		/*
+		 * Read an int array with its size
+		 */
+		private int[] readIntArray() throws IOException {
+			final int[] array = new int[this.readLength(4)];
+
+			for (int i = 0; i < array.length; i++)
+				array[i] = this.input.readInt();
+
+			return array;
+		}
+
+		/*
+		 * Read a string written by Writer#writeString
+		 */
+		private String readString() throws IOException {
+			final int index = this.readVarInt();
+
+			if (index < 0 || index > this.strings.size())
+				throw new FoException("Malformed binary item string reference " + index);
+
+			if (index > 0)
+				return this.strings.get(index - 1);
+
+			final byte[] bytes = new byte[this.readLength(1)];
+			this.input.readFully(bytes);
+
+			final String string = new String(bytes, StandardCharsets.UTF_8);
+			this.strings.add(string);
+
+			return string;
+		}
+
+		/*
+		 * Read a length of elements taking at least the given bytes each,
+		 * failing if there are not enough bytes left for them
+		 */
+		private int readLength(int elementBytes) throws IOException {
+			final int length = this.readVarInt();
+
+			if (length < 0 || (long) length * elementBytes > this.body.remaining)
+				throw new FoException("Malformed binary item length " + length);
+
+			return length;
+		}
+
+		/*
+		 * Read a number written by Writer#writeVarInt
+		 */
+		private int readVarInt() throws IOException {
+			int zigzag = 0;
+			int shift = 0;
+			byte next;
+
+			do {
+				if (shift > 28)
+					throw new FoException("Malformed binary item number");
+
+				next = this.input.readByte();
+				zigzag |= (next & 0x7F) << shift;
+				shift += 7;
+
+			} while ((next & 0x80) != 0);
+
+			return zigzag >>> 1 ^ -(zigzag & 1);
+		}
+	}
+}
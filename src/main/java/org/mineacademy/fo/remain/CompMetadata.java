@@ -1,22 +1,27 @@
 package org.mineacademy.fo.remain;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
-import org.bukkit.block.Block;
+import org.bukkit.World;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.CreatureSpawner;
 import org.bukkit.entity.Entity;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.metadata.MetadataValue;
@@ -32,7 +37,7 @@ import org.mineacademy.fo.collection.SerializedMap;
 import org.mineacademy.fo.model.ConfigSerializable;
 import org.mineacademy.fo.plugin.SimplePlugin;
 import org.mineacademy.fo.remain.nbt.NBT;
-import org.mineacademy.fo.remain.nbt.ReadableNBT;
+import org.mineacademy.fo.remain.nbt.NBTReflectionUtil;
 import org.mineacademy.fo.settings.YamlConfig;
 
 import lombok.AccessLevel;
@@ -100,6 +105,39 @@ public final class CompMetadata {
 		});
 	}
 
+	/**
+	 * Set or remove several tags on a copy of the item in one pass, returning the copy.
+	 * Keys with null or empty values are removed.
+	 *
+	 * @param item
+	 * @param tags
+	 * @return
+	 */
+	public static ItemStack edit(@NonNull final ItemStack item, @NonNull final Map<String, String> tags) {
+		Valid.checkBoolean(MinecraftVersion.atLeast(V.v1_7), "Using CompMetadata for ItemStacks requires Minecraft 1.7.10 or newer");
+
+		final ItemStack clone = new ItemStack(item);
+
+		if (tags.isEmpty())
+			return clone;
+
+		return NBT.modify(clone, tag -> {
+			for (final Map.Entry<String, String> entry : tags.entrySet()) {
+				final String key = entry.getKey();
+				final String value = entry.getValue();
+
+				if (value == null || "".equals(value)) {
+					if (tag.hasTag(key))
+						tag.removeKey(key);
+
+				} else
+					tag.setString(key, value);
+			}
+
+			return clone;
+		});
+	}
+
 	/**
 	 * Attempts to set a persistent metadata tag with value for entity
 	 *
@@ -185,20 +223,67 @@ public final class CompMetadata {
 	 * @return
 	 */
 	public static String getMetadata(@NonNull final ItemStack item, @NonNull final String key) {
+		return readValues(item, new String[] { key })[0];
+	}
+
+	/**
+	 * Read several tags from the item in one pass, returning a map of keys to their values.
+	 * Keys without a value are left out.
+	 *
+	 * The item tag is read directly from the item without copying it.
+	 *
+	 * @param item
+	 * @param keys
+	 * @return
+	 */
+	public static Map<String, String> read(@NonNull final ItemStack item, @NonNull final String... keys) {
+		final String[] values = readValues(item, keys);
+		final Map<String, String> read = new LinkedHashMap<>();
+
+		for (int i = 0; i < keys.length; i++)
+			if (values[i] != null)
+				read.put(keys[i], values[i]);
+
+		return read;
+	}
+
+	/*
+	 * Read the values of the given keys from the item tag, or from the legacy compound we used to store tags in
+	 */
+	private static String[] readValues(final ItemStack item, final String[] keys) {
 		Valid.checkBoolean(MinecraftVersion.atLeast(V.v1_7), "Using CompMetadata for ItemStacks requires Minecraft 1.7.10 or newer");
 
-		return CompMaterial.isAir(item.getType()) ? null : NBT.get(item, nbt -> {
-			String value = Common.getOrNull(nbt.getString(key));
+		final String[] values = new String[keys.length];
+
+		// Custom tags can only be present on items with meta
+		if (CompMaterial.isAir(item.getType()) || !item.hasItemMeta())
+			return values;
+
+		final Object tag = NBTReflectionUtil.getItemRootNBTTagCompoundReadOnly(item);
+
+		if (tag == null)
+			return values;
+
+		Object legacyCompound = null;
+		boolean legacyRead = false;
+
+		for (int i = 0; i < keys.length; i++) {
+			String value = NBTReflectionUtil.getStringOrNull(tag, keys[i]);
 
 			if (value == null) {
-				final ReadableNBT compound = nbt.getCompound(SimplePlugin.getNamed() + "_NbtTag");
+				if (!legacyRead) {
+					legacyCompound = NBTReflectionUtil.getCompoundOrNull(tag, SimplePlugin.getNamed() + "_NbtTag");
+					legacyRead = true;
+				}
 
-				if (compound != null && compound.hasTag(key))
-					value = Common.getOrNull(compound.getString(key));
+				if (legacyCompound != null)
+					value = NBTReflectionUtil.getStringOrNull(legacyCompound, keys[i]);
 			}
 
-			return value;
-		});
+			values[i] = value;
+		}
+
+		return values;
 	}
 
 	/**
@@ -364,6 +449,9 @@ public final class CompMetadata {
 	/**
 	 * Due to lack of persistent metadata implementation until Minecraft 1.14.x,
 	 * we store them manually.
+	 *
+	 * Entity metadata are stored in this file, block metadata in binary region
+	 * files loaded with their chunks, see {@link LegacyBlockStore}.
 	 */
 	public static final class MetadataFile extends YamlConfig implements Listener {
 
@@ -376,9 +464,9 @@ public final class CompMetadata {
 		private final Map<UUID, Set<String>> entityMetadata = new HashMap<>();
 
 		/**
-		 * Stores tile entity metadata by Location
+		 * Stores tile entity metadata by their coordinates, created when loaded
 		 */
-		private final Map<Location, BlockCache> blockMetadata = new HashMap<>();
+		private LegacyBlockStore blockStore;
 
 		private boolean loaded = false;
 
@@ -399,6 +487,7 @@ public final class CompMetadata {
 
 		private void loadIfHasnt() {
 			if (!this.loaded) {
+				this.blockStore = new LegacyBlockStore(new File(SimplePlugin.getData(), "legacy-metadata"));
 				this.loadConfiguration(NO_DEFAULT, "legacy-metadata.yml");
 
 				this.loaded = true;
@@ -421,11 +510,23 @@ public final class CompMetadata {
 			return !hasPersistentMetadata && ENABLE_LEGACY_FILE_STORAGE;
 		}
 
+		@Override
+		protected void onPreSave() {
+			if (this.blockStore != null && this.canSaveFile())
+				this.blockStore.save(false);
+		}
+
 		@Override
 		public SerializedMap saveToMap() {
-			return SerializedMap.ofArray(
-					"Entity", this.entityMetadata,
-					"Block", this.blockMetadata);
+			return SerializedMap.ofArray("Entity", this.entityMetadata);
+		}
+
+		@EventHandler
+		public void onChunkLoad(final ChunkLoadEvent event) {
+			final Chunk chunk = event.getChunk();
+
+			this.loadIfHasnt();
+			this.blockStore.prefetch(chunk.getWorld(), chunk.getX(), chunk.getZ());
 		}
 
 		@EventHandler
@@ -458,19 +559,25 @@ public final class CompMetadata {
 			}
 		}
 
+		/*
+		 * Move block metadata from this file, where they were stored before, to the block store
+		 */
 		private void loadBlockStates() {
-			this.blockMetadata.clear();
+			if (!this.isSet("Block"))
+				return;
 
 			for (final String locationString : this.getMap("Block").keySet()) {
 				final Location location = SerializeUtil.deserializeLocation(locationString);
-
-				final Block block = location.getBlock();
 				final BlockCache blockCache = this.get("Block." + locationString, BlockCache.class);
 
-				// Check if the block remained the same
-				if (block != null && CompMaterial.fromBlock(block) == blockCache.getType())
-					this.blockMetadata.put(location, blockCache);
+				// Changed blocks are discarded when accessed
+				if (location.getWorld() != null && blockCache != null && !blockCache.getMetadata().isEmpty())
+					this.blockStore.put(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+							new LegacyBlockStore.Entry(blockCache.getType(), blockCache.getMetadata().toArray(new String[0])));
 			}
+
+			this.set("Block", null);
+			this.blockStore.save(false);
 		}
 
 		protected String getMetadata(final Entity entity, @NonNull final String key) {
@@ -521,24 +628,23 @@ public final class CompMetadata {
 		protected String getMetadata(final BlockState entity, @NonNull final String key) {
 			this.loadIfHasnt();
 
-			final Location location = entity.getLocation();
-			final BlockCache blockCache = this.blockMetadata.get(location);
+			final LegacyBlockStore.Entry entry = this.blockStore.get(entity.getWorld(), entity.getX(), entity.getY(), entity.getZ());
 
-			if (blockCache == null)
+			if (entry == null)
 				return null;
 
-			final boolean hasSinceChanged = CompMaterial.fromBlock(location.getBlock()) != blockCache.getType();
+			// The block was replaced, its metadata no longer apply
+			if (CompMaterial.fromBlock(entity.getBlock()) != entry.getType()) {
+				this.blockStore.remove(entity.getWorld(), entity.getX(), entity.getY(), entity.getZ());
 
-			for (final Iterator<String> iterator = blockCache.getMetadata().iterator(); iterator.hasNext();) {
-				final String meta = iterator.next();
+				return null;
+			}
+
+			for (final String meta : entry.getTags()) {
 				final String value = getTag(meta, key);
 
-				if (value != null && !value.isEmpty()) {
-					if (hasSinceChanged)
-						iterator.remove();
-					else
-						return value;
-				}
+				if (value != null && !value.isEmpty())
+					return value;
 			}
 
 			return null;
@@ -547,33 +653,32 @@ public final class CompMetadata {
 		protected void setMetadata(final BlockState entity, final String key, final String value) {
 			this.loadIfHasnt();
 
-			final Location location = entity.getLocation();
-			BlockCache blockCache = this.blockMetadata.get(location);
+			final World world = entity.getWorld();
+			final int x = entity.getX(), y = entity.getY(), z = entity.getZ();
+
+			final LegacyBlockStore.Entry entry = this.blockStore.get(world, x, y, z);
 			final boolean remove = value == null || "".equals(value);
+			final List<String> metadata = new ArrayList<>();
 
-			// Remove the old value
-			if (blockCache != null)
-				for (final Iterator<String> iterator = blockCache.getMetadata().iterator(); iterator.hasNext();) {
-					final String meta = iterator.next();
+			// Keep other values
+			if (entry != null)
+				for (final String meta : entry.getTags())
+					if (getTag(meta, key) == null)
+						metadata.add(meta);
 
-					if (getTag(meta, key) != null)
-						iterator.remove();
-				}
+			if (!remove)
+				metadata.add(formatTag(key, value));
 
-			if (!remove) {
-				final String formatted = formatTag(key, value);
+			if (metadata.isEmpty())
+				this.blockStore.remove(world, x, y, z);
 
-				if (blockCache == null)
-					blockCache = BlockCache.create(CompMaterial.fromBlock(entity.getBlock()));
+			else {
+				final CompMaterial type = entry != null ? entry.getType() : CompMaterial.fromBlock(entity.getBlock());
 
-				blockCache.getMetadata().add(formatted);
-				this.blockMetadata.put(location, blockCache);
+				this.blockStore.put(world, x, y, z, new LegacyBlockStore.Entry(type, metadata.toArray(new String[metadata.size()])));
 			}
 
-			if (blockCache != null && blockCache.getMetadata().isEmpty())
-				this.blockMetadata.remove(location);
-
-			//this.save("Block", this.blockMetadata); -> handled in onPluginStop()
+			//this.blockStore.save(true); -> handled in autosave and onPluginStop()
 		}
 
 		@Getter
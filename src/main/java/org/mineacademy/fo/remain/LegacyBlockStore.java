@@ -0,0 +1,529 @@
+package org.mineacademy.fo.remain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+import org.mineacademy.fo.Common;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores legacy block metadata in binary files of 32x32 chunks, see {@link CompMetadata.MetadataFile}.
+ *
+ * Blocks are kept per chunk in arrays sorted by their packed position. A file is read
+ * when a chunk in it loads or when a block in it is first accessed, and only files
+ * that changed are written, off the main thread except on shutdown.
+ *
+ * Not thread-safe, only use from the main thread.
+ */
+final class LegacyBlockStore {
+
+	/**
+	 * The file header and format version
+	 */
+	private static final int MAGIC = 0x464F4D44, VERSION = 1;
+
+	/**
+	 * How often to save changed regions, in ticks
+	 */
+	private static final int AUTOSAVE_TICKS = 20 * 60 * 5;
+
+	/**
+	 * The folder with a subfolder for each world
+	 */
+	private final File folder;
+
+	/**
+	 * Regions in memory by world name and packed region coordinates,
+	 * regions without a file are stored empty so we do not check the disk again
+	 */
+	private final Map<String, Map<Long, Region>> worlds = new HashMap<>();
+
+	/**
+	 * Regions being read off the main thread
+	 */
+	private final Set<File> pendingReads = new HashSet<>();
+
+	/**
+	 * Data being written off the main thread, read instead of the file until written
+	 */
+	private final Map<File, byte[]> pendingWrites = new ConcurrentHashMap<>();
+
+	/**
+	 * Locks held while writing each file, so that writes of the same file never overlap
+	 */
+	private final Map<File, Object> writeLocks = new ConcurrentHashMap<>();
+
+	/**
+	 * Increased on each save, so that reads started before a save are discarded
+	 */
+	private int saveCount;
+
+	/**
+	 * The autosave task, started on the first change
+	 */
+	private BukkitTask autosaveTask;
+
+	LegacyBlockStore(File folder) {
+		this.folder = folder;
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Access
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Return the entry of the block at the given coordinates, or null if it has no metadata
+	 *
+	 * @param world
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	@Nullable
+	Entry get(World world, int x, int y, int z) {
+		final Region region = this.getRegion(world, x >> 4, z >> 4);
+		final Chunk chunk = region.chunks.get(packChunk(x >> 4, z >> 4));
+
+		return chunk != null ? chunk.get(packPosition(x, y, z)) : null;
+	}
+
+	/**
+	 * Store the entry of the block at the given coordinates
+	 *
+	 * @param world
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param entry
+	 */
+	void put(World world, int x, int y, int z, Entry entry) {
+		final Region region = this.getRegion(world, x >> 4, z >> 4);
+
+		region.chunks.computeIfAbsent(packChunk(x >> 4, z >> 4), key -> new Chunk()).put(packPosition(x, y, z), entry);
+		this.markDirty(region);
+	}
+
+	/**
+	 * Remove the entry of the block at the given coordinates
+	 *
+	 * @param world
+	 * @param x
+	 * @param y
+	 * @param z
+	 */
+	void remove(World world, int x, int y, int z) {
+		final Region region = this.getRegion(world, x >> 4, z >> 4);
+		final long chunkKey = packChunk(x >> 4, z >> 4);
+		final Chunk chunk = region.chunks.get(chunkKey);
+
+		if (chunk != null && chunk.remove(packPosition(x, y, z))) {
+			if (chunk.size == 0)
+				region.chunks.remove(chunkKey);
+
+			this.markDirty(region);
+		}
+	}
+
+	/*
+	 * Mark the region for saving and make sure the autosave runs
+	 */
+	private void markDirty(Region region) {
+		region.dirty = true;
+
+		if (this.autosaveTask == null || !Bukkit.getScheduler().isQueued(this.autosaveTask.getTaskId()))
+			this.autosaveTask = Common.runTimer(AUTOSAVE_TICKS, AUTOSAVE_TICKS, () -> this.save(true));
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Loading
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Start reading the region of the given chunk off the main thread if it is not yet in memory
+	 *
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	void prefetch(World world, int chunkX, int chunkZ) {
+		final Map<Long, Region> regions = this.worlds.computeIfAbsent(world.getName(), name -> new HashMap<>());
+		final long regionKey = packChunk(chunkX >> 5, chunkZ >> 5);
+
+		if (regions.containsKey(regionKey))
+			return;
+
+		final File file = this.getFile(world, chunkX >> 5, chunkZ >> 5);
+
+		if (!this.pendingReads.add(file))
+			return;
+
+		final int saveCount = this.saveCount;
+
+		Common.runAsync(() -> {
+			Region region;
+
+			try {
+				region = this.read(file);
+
+			} catch (final Throwable t) {
+				region = null;
+			}
+
+			final Region read = region;
+
+			Common.runLater(() -> {
+				this.pendingReads.remove(file);
+
+				// Read synchronously in the meantime, possibly outdated, or failed and will be read again when accessed
+				if (read != null && saveCount == this.saveCount)
+					regions.putIfAbsent(regionKey, read);
+			});
+		});
+	}
+
+	/*
+	 * Return the region of the given chunk, reading it from disk if not yet in memory
+	 */
+	private Region getRegion(World world, int chunkX, int chunkZ) {
+		final Map<Long, Region> regions = this.worlds.computeIfAbsent(world.getName(), name -> new HashMap<>());
+		final long regionKey = packChunk(chunkX >> 5, chunkZ >> 5);
+
+		Region region = regions.get(regionKey);
+
+		if (region == null) {
+			final File file = this.getFile(world, chunkX >> 5, chunkZ >> 5);
+
+			try {
+				region = this.read(file);
+
+			} catch (final IOException ex) {
+				Common.error(ex, "Failed to read legacy block metadata from " + file + ", starting with an empty region");
+
+				region = new Region(file);
+			}
+
+			regions.put(regionKey, region);
+		}
+
+		return region;
+	}
+
+	/*
+	 * Read the region from the data being written or from its file
+	 */
+	private Region read(File file) throws IOException {
+		final Region region = new Region(file);
+		final byte[] pending = this.pendingWrites.get(file);
+
+		// Not saved yet, or the file is being deleted
+		if (pending == null ? !file.exists() : pending.length == 0)
+			return region;
+
+		try (DataInputStream input = new DataInputStream(pending != null ? new ByteArrayInputStream(pending) : new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			readRegion(input, region);
+		}
+
+		return region;
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Saving
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Write all changed regions and drop unchanged regions whose chunks are not loaded
+	 *
+	 * @param async write files off the main thread, false when the plugin is disabling
+	 */
+	void save(boolean async) {
+		this.saveCount++;
+
+		for (final Map.Entry<String, Map<Long, Region>> worldEntry : this.worlds.entrySet()) {
+			final World world = Bukkit.getWorld(worldEntry.getKey());
+
+			for (final Iterator<Region> iterator = worldEntry.getValue().values().iterator(); iterator.hasNext();) {
+				final Region region = iterator.next();
+
+				if (region.dirty) {
+					final File file = region.file;
+					final byte[] data = region.chunks.isEmpty() ? new byte[0] : writeRegion(region);
+
+					region.dirty = false;
+					this.pendingWrites.put(file, data);
+
+					if (async)
+						Common.runAsync(() -> this.write(file, data));
+					else
+						this.write(file, data);
+
+				} else if (world == null || !region.hasLoadedChunks(world))
+					iterator.remove();
+			}
+		}
+	}
+
+	/*
+	 * Write the data to the file atomically, deleting the file if there are no data,
+	 * unless newer data for the file were saved in the meantime
+	 */
+	private void write(File file, byte[] data) {
+		synchronized (this.writeLocks.computeIfAbsent(file, key -> new Object())) {
+
+			// A later save owns the file now, its data are either written already or will be
+			if (this.pendingWrites.get(file) != data)
+				return;
+
+			try {
+				if (data.length == 0)
+					Files.deleteIfExists(file.toPath());
+
+				else {
+					final File temporary = new File(file.getPath() + ".tmp");
+
+					file.getParentFile().mkdirs();
+
+					Files.write(temporary.toPath(), data);
+					Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+
+			} catch (final IOException ex) {
+				Common.error(ex, "Failed to save legacy block metadata to " + file);
+
+			} finally {
+
+				// Keep newer data written in the meantime
+				this.pendingWrites.remove(file, data);
+			}
+		}
+	}
+
+	/*
+	 * Return the file of the given region
+	 */
+	private File getFile(World world, int regionX, int regionZ) {
+		return new File(this.folder, world.getName() + "/r." + regionX + "." + regionZ + ".dat");
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Format
+	// ------------------------------------------------------------------------------------------------------------
+
+	/*
+	 * Read the chunks of a region
+	 */
+	private static void readRegion(DataInputStream input, Region region) throws IOException {
+		if (input.readInt() != MAGIC)
+			throw new IOException("Not a legacy block metadata file");
+
+		final int version = input.readInt();
+
+		if (version != VERSION)
+			throw new IOException("Unsupported legacy block metadata version " + version);
+
+		final int chunkCount = input.readInt();
+
+		for (int i = 0; i < chunkCount; i++) {
+			final long chunkKey = input.readLong();
+			final int size = input.readInt();
+			final Chunk chunk = new Chunk();
+
+			for (int j = 0; j < size; j++) {
+				final int position = input.readInt();
+				final CompMaterial type = CompMaterial.fromString(input.readUTF());
+				final String[] tags = new String[input.readShort()];
+
+				for (int k = 0; k < tags.length; k++)
+					tags[k] = input.readUTF();
+
+				chunk.put(position, new Entry(type, tags));
+			}
+
+			if (chunk.size > 0)
+				region.chunks.put(chunkKey, chunk);
+		}
+	}
+
+	/*
+	 * Write the chunks of a region
+	 */
+	private static byte[] writeRegion(Region region) {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(bytes))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(region.chunks.size());
+
+			for (final Map.Entry<Long, Chunk> entry : region.chunks.entrySet()) {
+				final Chunk chunk = entry.getValue();
+
+				output.writeLong(entry.getKey());
+				output.writeInt(chunk.size);
+
+				for (int i = 0; i < chunk.size; i++) {
+					final Entry block = chunk.entries[i];
+
+					output.writeInt(chunk.positions[i]);
+					output.writeUTF(block.getType().name());
+					output.writeShort(block.getTags().length);
+
+					for (final String tag : block.getTags())
+						output.writeUTF(tag);
+				}
+			}
+
+		} catch (final IOException ex) {
+
+			// Cannot happen when writing to memory
+			throw new IllegalStateException(ex);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/*
+	 * Pack chunk or region coordinates into a key
+	 */
+	private static long packChunk(int x, int z) {
+		return (long) x << 32 | z & 0xFFFFFFFFL;
+	}
+
+	/*
+	 * Pack block coordinates into a position within its chunk
+	 */
+	private static int packPosition(int x, int y, int z) {
+		return y << 8 | (z & 15) << 4 | x & 15;
+	}
+
+	/*
+	 * Return the chunk X or Z from the packed key
+	 */
+	private static int unpackX(long key) {
+		return (int) (key >> 32);
+	}
+
+	private static int unpackZ(long key) {
+		return (int) key;
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// Classes
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The metadata of a block with the block type at the time it was set
+	 */
+	@Getter
+	@RequiredArgsConstructor
+	static final class Entry {
+
+		/**
+		 * The block type when the metadata were set, if it changes the metadata are discarded
+		 */
+		private final CompMaterial type;
+
+		/**
+		 * The formatted metadata tags
+		 */
+		private final String[] tags;
+	}
+
+	/*
+	 * A region file of 32x32 chunks
+	 */
+	@RequiredArgsConstructor
+	private static final class Region {
+
+		private final File file;
+		private final Map<Long, Chunk> chunks = new HashMap<>();
+		private boolean dirty;
+
+		/*
+		 * Return true if any chunk we have data for is loaded
+		 */
+		private boolean hasLoadedChunks(World world) {
+			for (final long chunkKey : this.chunks.keySet())
+				if (world.isChunkLoaded(unpackX(chunkKey), unpackZ(chunkKey)))
+					return true;
+
+			return false;
+		}
+	}
+
+	/*
+	 * Blocks with metadata in a chunk, sorted by their packed position
+	 */
+	private static final class Chunk {
+
+		private int[] positions = new int[4];
+		private Entry[] entries = new Entry[4];
+		private int size;
+
+		private Entry get(int position) {
+			final int index = Arrays.binarySearch(this.positions, 0, this.size, position);
+
+			return index >= 0 ? this.entries[index] : null;
+		}
+
+		private void put(int position, Entry entry) {
+			int index = Arrays.binarySearch(this.positions, 0, this.size, position);
+
+			if (index >= 0) {
+				this.entries[index] = entry;
+
+				return;
+			}
+
+			index = -index - 1;
+
+			if (this.size == this.positions.length) {
+				this.positions = Arrays.copyOf(this.positions, this.size * 2);
+				this.entries = Arrays.copyOf(this.entries, this.size * 2);
+			}
+
+			System.arraycopy(this.positions, index, this.positions, index + 1, this.size - index);
+			System.arraycopy(this.entries, index, this.entries, index + 1, this.size - index);
+
+			this.positions[index] = position;
+			this.entries[index] = entry;
+			this.size++;
+		}
+
+		private boolean remove(int position) {
+			final int index = Arrays.binarySearch(this.positions, 0, this.size, position);
+
+			if (index < 0)
+				return false;
+
+			System.arraycopy(this.positions, index + 1, this.positions, index, this.size - index - 1);
+			System.arraycopy(this.entries, index + 1, this.entries, index, this.size - index - 1);
+
+			this.entries[--this.size] = null;
+
+			return true;
+		}
+	}
+}
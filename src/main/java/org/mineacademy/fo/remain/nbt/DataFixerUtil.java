@@ -5,7 +5,7 @@ import com.mojang.datafixers.DataFixer;
 import com.mojang.serialization.Dynamic;
 import com.mojang.serialization.DynamicOps;
 
-final class DataFixerUtil {
+public final class DataFixerUtil {
 
 	public static final int VERSION1_12_2 = 1343;
 	public static final int VERSION1_16_5 = 2586;
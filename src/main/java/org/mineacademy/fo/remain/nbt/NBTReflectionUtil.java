@@ -4,13 +4,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.block.BlockState;
@@ -29,6 +34,10 @@ public class NBTReflectionUtil {
 
 	private static Field field_unhandledTags = null;
 	private static Field field_handle = null;
+	private static MethodHandle getter_unhandledTags = null;
+	private static MethodHandle getter_handle = null;
+	private static MethodHandle getter_customDataTag = null;
+	private static final Map<Class<?>, MethodHandle> listTypeGetters = new ConcurrentHashMap<>();
 	private static Object type_custom_data = null;
 	private static Object registry_access = null;
 
@@ -36,12 +45,14 @@ public class NBTReflectionUtil {
 		try {
 			field_unhandledTags = ClassWrapper.CRAFT_METAITEM.getClazz().getDeclaredField("unhandledTags");
 			field_unhandledTags.setAccessible(true);
+			getter_unhandledTags = unreflectGetter(field_unhandledTags);
 		} catch (final NoSuchFieldException e) {
 
 		}
 		try {
 			field_handle = ClassWrapper.CRAFT_ITEMSTACK.getClazz().getDeclaredField("handle");
 			field_handle.setAccessible(true);
+			getter_handle = unreflectGetter(field_handle);
 		} catch (final NoSuchFieldException e) {
 
 		}
@@ -53,6 +64,14 @@ public class NBTReflectionUtil {
 			} catch (NoSuchFieldException | IllegalArgumentException | IllegalAccessException e) {
 
 			}
+			// CustomData only holds its tag, find it by type so it works with any mapping
+			for (final Field field : ClassWrapper.NMS_CUSTOMDATA.getClazz().getDeclaredFields())
+				if (field.getType() == ClassWrapper.NMS_NBTTAGCOMPOUND.getClazz()
+						&& !Modifier.isStatic(field.getModifiers())) {
+					field.setAccessible(true);
+					getter_customDataTag = unreflectGetter(field);
+					break;
+				}
 			try {
 				final Object nmsServer = ReflectionMethod.NMSSERVER_GETSERVER.run(Bukkit.getServer());
 				registry_access = ReflectionMethod.NMSSERVER_GETREGISTRYACCESS.run(nmsServer);
@@ -69,6 +88,21 @@ public class NBTReflectionUtil {
 
 	}
 
+	/**
+	 * Resolves the field into a getter taking and returning objects, or null to
+	 * fall back to reflection
+	 *
+	 * @param field an accessible field
+	 * @return the getter or null
+	 */
+	private static MethodHandle unreflectGetter(Field field) {
+		try {
+			return MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+		} catch (final Throwable ex) {
+			return null;
+		}
+	}
+
 	/**
 	 * Gets the NMS Entity for a given Bukkit Entity
 	 *
@@ -129,8 +163,10 @@ public class NBTReflectionUtil {
 	 */
 	public static Object getCraftItemHandle(ItemStack item) {
 		try {
+			if (getter_handle != null)
+				return (Object) getter_handle.invokeExact((Object) item);
 			return field_handle.get(item);
-		} catch (IllegalArgumentException | IllegalAccessException e) {
+		} catch (final Throwable e) {
 			throw new NbtApiException("Error getting handle from " + item.getClass(), e);
 		}
 	}
@@ -173,6 +209,71 @@ public class NBTReflectionUtil {
 		}
 	}
 
+	/**
+	 * Gets the live root NBTTagCompound of the NMS ItemStack without copying it
+	 * where possible. The result must never be modified.
+	 *
+	 * @param nmsitem
+	 * @return NMS Compound or null
+	 */
+	public static Object getItemRootNBTTagCompoundUnsafe(Object nmsitem) {
+		try {
+			if (MinecraftVersion.isAtLeastVersion(MinecraftVersion.MC1_20_R4)) {
+				final Object customData = ReflectionMethod.NMSDATACOMPONENTHOLDER_GET.run(nmsitem, type_custom_data);
+				if (customData == null)
+					return null;
+				if (getter_customDataTag != null)
+					return (Object) getter_customDataTag.invokeExact(customData);
+				return ReflectionMethod.NMSCUSTOMDATA_GETCOPY.run(customData);
+			}
+			return ReflectionMethod.NMSITEM_GETTAG.run(nmsitem);
+		} catch (final Throwable e) {
+			throw new NbtApiException("Exception while getting an Itemstack's NBTCompound!", e);
+		}
+	}
+
+	/**
+	 * Gets the root NBTTagCompound of the Bukkit ItemStack for reading only. The
+	 * tag of a CraftItemStack is read from its handle, other stacks are copied
+	 * once. The result must never be modified.
+	 *
+	 * @param item
+	 * @return NMS Compound or null
+	 */
+	public static Object getItemRootNBTTagCompoundReadOnly(ItemStack item) {
+		final Object nmsitem = ClassWrapper.CRAFT_ITEMSTACK.getClazz().isAssignableFrom(item.getClass())
+				? getCraftItemHandle(item)
+				: ReflectionMethod.ITEMSTACK_NMSCOPY.run(null, item);
+		return nmsitem == null ? null : getItemRootNBTTagCompoundUnsafe(nmsitem);
+	}
+
+	/**
+	 * Gets a string from a NMS Compound
+	 *
+	 * @param compound NMS Compound
+	 * @param key
+	 * @return the string, or null if not set or empty
+	 */
+	public static String getStringOrNull(Object compound, String key) {
+		if (!(boolean) ReflectionMethod.COMPOUND_HAS_KEY.run(compound, key))
+			return null;
+		final String value = (String) ReflectionMethod.COMPOUND_GET_STRING.run(compound, key);
+		return value == null || value.isEmpty() ? null : value;
+	}
+
+	/**
+	 * Gets a child compound from a NMS Compound
+	 *
+	 * @param compound NMS Compound
+	 * @param key
+	 * @return the child NMS Compound, or null if not set
+	 */
+	public static Object getCompoundOrNull(Object compound, String key) {
+		if (!(boolean) ReflectionMethod.COMPOUND_HAS_KEY.run(compound, key))
+			return null;
+		return ReflectionMethod.COMPOUND_GET_COMPOUND.run(compound, key);
+	}
+
 	/**
 	 * Set the Compound as the Items NBT or CustomData
 	 *
@@ -243,8 +344,10 @@ public class NBTReflectionUtil {
 	@Deprecated
 	public static Map<String, Object> getUnhandledNBTTags(ItemMeta meta) {
 		try {
+			if (getter_unhandledTags != null)
+				return (Map<String, Object>) (Object) getter_unhandledTags.invokeExact((Object) meta);
 			return (Map<String, Object>) field_unhandledTags.get(meta);
-		} catch (final Exception e) {
+		} catch (final Throwable e) {
 			throw new NbtApiException("Exception while getting unhandled tags from ItemMeta!", e);
 		}
 	}
@@ -524,19 +627,24 @@ public class NBTReflectionUtil {
 			workingtag = dummyNBT.getCompound(); // it creates a new ListTag if needed, but its unlinked
 		try {
 			final Object nbt = ReflectionMethod.COMPOUND_GET.run(workingtag, key);
-			String fieldname = "type";
-			if (MinecraftVersion.isAtLeastVersion(MinecraftVersion.MC1_17_R1))
-				fieldname = "w";
-			Field f;
-			try {
-				f = nbt.getClass().getDeclaredField(fieldname);
-			} catch (final NoSuchFieldException ignore) {
-				// fallback try mojang mapped/legacy
-				f = nbt.getClass().getDeclaredField("type");
+			MethodHandle getter = listTypeGetters.get(nbt.getClass());
+			if (getter == null) {
+				String fieldname = "type";
+				if (MinecraftVersion.isAtLeastVersion(MinecraftVersion.MC1_17_R1))
+					fieldname = "w";
+				Field f;
+				try {
+					f = nbt.getClass().getDeclaredField(fieldname);
+				} catch (final NoSuchFieldException ignore) {
+					// fallback try mojang mapped/legacy
+					f = nbt.getClass().getDeclaredField("type");
+				}
+				f.setAccessible(true);
+				getter = MethodHandles.lookup().unreflectGetter(f).asType(MethodType.methodType(byte.class, Object.class));
+				listTypeGetters.put(nbt.getClass(), getter);
 			}
-			f.setAccessible(true);
-			return NBTType.valueOf(f.getByte(nbt));
-		} catch (final Exception ex) {
+			return NBTType.valueOf((byte) getter.invokeExact(nbt));
+		} catch (final Throwable ex) {
 			throw new NbtApiException("Exception while getting the list type!", ex);
 		}
 	}
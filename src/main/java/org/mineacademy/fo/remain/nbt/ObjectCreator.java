@@ -1,5 +1,8 @@
 package org.mineacademy.fo.remain.nbt;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 
 import org.mineacademy.fo.Common;
@@ -19,6 +22,7 @@ enum ObjectCreator {
 			ClassWrapper.NMS_NBTTAGCOMPOUND.getClazz()),;
 
 	private Constructor<?> construct;
+	private MethodHandle handle;
 	private Class<?> targetClass;
 
 	ObjectCreator(MinecraftVersion from, MinecraftVersion to, Class<?> clazz, Class<?>... args) {
@@ -32,6 +36,15 @@ enum ObjectCreator {
 			construct.setAccessible(true);
 		} catch (final Exception ex) {
 			Common.error(ex, "Unable to find the constructor for the class '" + clazz.getName() + "'");
+			return;
+		}
+		try {
+			handle = MethodHandles.lookup().unreflectConstructor(construct)
+					.asType(MethodType.genericMethodType(args.length))
+					.asSpreader(Object[].class, args.length);
+		} catch (final Throwable ex) {
+			// fall back to reflection
+			handle = null;
 		}
 	}
 
@@ -43,8 +56,10 @@ enum ObjectCreator {
 	 */
 	public Object getInstance(Object... args) {
 		try {
+			if (handle != null && args != null && args.length == construct.getParameterCount())
+				return (Object) handle.invokeExact(args);
 			return construct.newInstance(args);
-		} catch (final Exception ex) {
+		} catch (final Throwable ex) {
 			throw new NbtApiException("Exception while creating a new instance of '" + targetClass + "'", ex);
 		}
 	}
@@ -2,7 +2,11 @@ package org.mineacademy.fo.remain.nbt;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.UUID;
 
@@ -308,6 +312,8 @@ enum ReflectionMethod {
 	private MinecraftVersion removedAfter;
 	private Since targetVersion;
 	private Method method;
+	private MethodHandle handle;
+	private MethodHandle spreadHandle;
 	private boolean loaded = false;
 	private boolean compatible = false;
 	private String methodName = null;
@@ -344,6 +350,7 @@ enum ReflectionMethod {
 					method.setAccessible(true);
 					loaded = true;
 					methodName = name;
+					bindHandles();
 					return;
 				} catch (final NoSuchMethodException ignore) {
 					// not mojang mapped
@@ -355,6 +362,7 @@ enum ReflectionMethod {
 			method.setAccessible(true);
 			loaded = true;
 			methodName = targetVersion.name;
+			bindHandles();
 		} catch (NullPointerException | NoSuchMethodException | SecurityException ex) {
 			try {
 				if (targetVersion.version.isMojangMapping())
@@ -364,6 +372,7 @@ enum ReflectionMethod {
 				method.setAccessible(true);
 				loaded = true;
 				methodName = targetVersion.name;
+				bindHandles();
 			} catch (NullPointerException | NoSuchMethodException | SecurityException ex2) {
 				System.out.println("NBTAPI] Unable to find the method '" + targetMethodName + "' in '"
 						+ (targetClass.getClazz() == null ? targetClass.getMojangName()
@@ -378,6 +387,29 @@ enum ReflectionMethod {
 		this(targetClass, args, addedSince, null, methodnames);
 	}
 
+	/**
+	 * Resolves the loaded method into method handles taking the target and
+	 * arguments as objects, so calls skip the reflective access checks. If the
+	 * method cannot be unreflected, calls fall back to {@link Method#invoke}.
+	 */
+	private void bindHandles() {
+		try {
+			MethodHandle bound = MethodHandles.lookup().unreflect(method);
+
+			// Static methods ignore the target
+			if (Modifier.isStatic(method.getModifiers()))
+				bound = MethodHandles.dropArguments(bound, 0, Object.class);
+
+			final int arity = method.getParameterCount();
+
+			handle = bound.asType(MethodType.genericMethodType(arity + 1));
+			spreadHandle = handle.asSpreader(Object[].class, arity);
+		} catch (final Throwable ex) {
+			handle = null;
+			spreadHandle = null;
+		}
+	}
+
 	/**
 	 * Runs the method on a given target object using the given args.
 	 *
@@ -389,13 +421,73 @@ enum ReflectionMethod {
 		if (method == null)
 			throw new NbtApiException("Method not loaded! '" + this + "'");
 		try {
+			if (spreadHandle != null && args != null && args.length == method.getParameterCount())
+				return (Object) spreadHandle.invokeExact(target, args);
 			return method.invoke(target, args);
-		} catch (final Exception ex) {
-			throw new NbtApiException("Error while calling the method '" + methodName + "', loaded: " + loaded
-					+ ", Enum: " + this + ", Passed Class: " + (target == null ? "null" : target.getClass()) + " Args: " + (args == null ? "null" : Arrays.toString(args)), ex);
+		} catch (final Throwable ex) {
+			throw fail(target, args, ex);
+		}
+	}
+
+	/**
+	 * Runs a method without arguments on a given target object, without creating
+	 * the varargs array.
+	 *
+	 * @param target
+	 * @return Value returned by the method
+	 */
+	public Object run(Object target) {
+		if (handle == null || method.getParameterCount() != 0)
+			return run(target, new Object[0]);
+		try {
+			return (Object) handle.invokeExact(target);
+		} catch (final Throwable ex) {
+			throw fail(target, new Object[0], ex);
+		}
+	}
+
+	/**
+	 * Runs a method with one argument on a given target object, without creating
+	 * the varargs array.
+	 *
+	 * @param target
+	 * @param arg
+	 * @return Value returned by the method
+	 */
+	public Object run(Object target, Object arg) {
+		if (handle == null || method.getParameterCount() != 1)
+			return run(target, new Object[] { arg });
+		try {
+			return (Object) handle.invokeExact(target, arg);
+		} catch (final Throwable ex) {
+			throw fail(target, new Object[] { arg }, ex);
 		}
 	}
 
+	/**
+	 * Runs a method with two arguments on a given target object, without creating
+	 * the varargs array.
+	 *
+	 * @param target
+	 * @param first
+	 * @param second
+	 * @return Value returned by the method
+	 */
+	public Object run(Object target, Object first, Object second) {
+		if (handle == null || method.getParameterCount() != 2)
+			return run(target, new Object[] { first, second });
+		try {
+			return (Object) handle.invokeExact(target, first, second);
+		} catch (final Throwable ex) {
+			throw fail(target, new Object[] { first, second }, ex);
+		}
+	}
+
+	private NbtApiException fail(Object target, Object[] args, Throwable ex) {
+		return new NbtApiException("Error while calling the method '" + methodName + "', loaded: " + loaded
+				+ ", Enum: " + this + ", Passed Class: " + (target == null ? "null" : target.getClass()) + " Args: " + (args == null ? "null" : Arrays.toString(args)), ex);
+	}
+
 	/**
 	 * @return The MethodName, used in this Minecraft Version
 	 */
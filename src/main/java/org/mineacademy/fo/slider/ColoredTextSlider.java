@@ -15,6 +15,8 @@ import lombok.RequiredArgsConstructor;
  * automatically.
  *
  * Example use: Animated scoreboards, menu titles, etc.
+ *
+ * Frames are colorized once and reused until the width or colors change.
  */
 @Getter
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -45,6 +47,12 @@ public final class ColoredTextSlider implements Slider<String> {
 	 */
 	private int currentPointer = Integer.MIN_VALUE;
 
+	/*
+	 * The precomputed frames from pointer 1 - width to text length - 1, or null if not yet computed
+	 */
+	@Getter(AccessLevel.NONE)
+	private String[] frames;
+
 	/**
 	 * Set the amount of letters of the text we apply
 	 * {@link #getSecondaryColor()} to.
@@ -54,6 +62,7 @@ public final class ColoredTextSlider implements Slider<String> {
 	 */
 	public ColoredTextSlider width(int width) {
 		this.width = width;
+		this.frames = null;
 
 		return this;
 	}
@@ -66,6 +75,7 @@ public final class ColoredTextSlider implements Slider<String> {
 	 */
 	public ColoredTextSlider primaryColor(String primaryColor) {
 		this.primaryColor = primaryColor;
+		this.frames = null;
 
 		return this;
 	}
@@ -79,6 +89,7 @@ public final class ColoredTextSlider implements Slider<String> {
 	 */
 	public ColoredTextSlider secondaryColor(String secondaryColor) {
 		this.secondaryColor = secondaryColor;
+		this.frames = null;
 
 		return this;
 	}
@@ -92,15 +103,32 @@ public final class ColoredTextSlider implements Slider<String> {
 		if (this.currentPointer == Integer.MIN_VALUE || this.currentPointer == this.text.length())
 			this.currentPointer = 1 - this.width;
 
-		final int from = MathUtil.range(this.currentPointer, 0, this.text.length());
-		final int to = MathUtil.range(this.currentPointer + this.width, 0, this.text.length());
+		if (this.frames == null) {
+			this.frames = new String[Math.max(0, this.text.length() + this.width - 1)];
+
+			for (int i = 0; i < this.frames.length; i++)
+				this.frames[i] = this.render(1 - this.width + i);
+		}
+
+		final int index = this.currentPointer - (1 - this.width);
+		final String frame = index >= 0 && index < this.frames.length ? this.frames[index] : this.render(this.currentPointer);
+
+		this.currentPointer++;
+
+		return frame;
+	}
+
+	/*
+	 * Colorize the text with the secondary color starting at the given pointer
+	 */
+	private String render(int pointer) {
+		final int from = MathUtil.range(pointer, 0, this.text.length());
+		final int to = MathUtil.range(pointer + this.width, 0, this.text.length());
 
 		final String before = Common.colorize(this.primaryColor + this.text.substring(0, from));
 		final String part = Common.colorize(this.secondaryColor + this.text.substring(from, to));
 		final String after = Common.colorize(this.primaryColor + this.text.substring(to));
 
-		this.currentPointer++;
-
 		return before + part + after;
 	}
 
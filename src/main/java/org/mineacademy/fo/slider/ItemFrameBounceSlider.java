@@ -12,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 
 /**
  * An example slider iterating through items and highlighting one.
+ *
+ * Frames are computed once, each call to {@link #next()} returns a new copy.
  */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class ItemFrameBounceSlider implements Slider<Map<Integer, ItemStack>> {
@@ -42,24 +44,19 @@ public final class ItemFrameBounceSlider implements Slider<Map<Integer, ItemStac
 	private int frameSize = 27;
 
 	/*
-	 * The first head in the slider.
+	 * How many frames it takes both heads to bounce across the row and back.
 	 */
-	private int topPointer = 0;
+	private static final int FRAME_COUNT = 16;
 
 	/*
-	 * The second head in the slider.
+	 * The index of the next frame.
 	 */
-	private int bottomPointer = 44;
+	private int currentFrame = 0;
 
 	/*
-	 * Check if the top pointer is decreasing
+	 * The precomputed frames, or null if not yet computed
 	 */
-	boolean topDecreasing = false;
-
-	/*
-	 * Check if the bottom pointer is decreasing
-	 */
-	boolean bottomDecreasing = true;
+	private Map<Integer, ItemStack>[] frames;
 
 	/**
 	 * Set the frame's size
@@ -69,6 +66,8 @@ public final class ItemFrameBounceSlider implements Slider<Map<Integer, ItemStac
 	 */
 	public ItemFrameBounceSlider frameSize(final int frameSize) {
 		this.frameSize = frameSize;
+		this.frames = null;
+		this.currentFrame = 0;
 
 		return this;
 	}
@@ -78,54 +77,74 @@ public final class ItemFrameBounceSlider implements Slider<Map<Integer, ItemStac
 	 */
 	@Override
 	public Map<Integer, ItemStack> next() {
-		final Map<Integer, ItemStack> items = new HashMap<>();
+		if (this.frames == null)
+			this.frames = this.computeFrames();
+
+		final Map<Integer, ItemStack> frame = this.frames[this.currentFrame];
+		this.currentFrame = (this.currentFrame + 1) % this.frames.length;
+
+		return new HashMap<>(frame);
+	}
+
+	/*
+	 * Compute one full bounce of the top head starting from the top left
+	 * corner and the bottom head starting from the bottom right corner
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<Integer, ItemStack>[] computeFrames() {
+		final Map<Integer, ItemStack>[] frames = new Map[FRAME_COUNT];
 		final int rowCount = this.frameSize / 9;
 
+		final Map<Integer, ItemStack> border = new HashMap<>();
+
 		for (int index = 0; index < this.frameSize; index++) {
 			final int row = index / 9;
 			final int column = (index % 9) + 1;
 
 			if (row == 0 || row == rowCount - 1)
-				items.put(index, this.fillerItem);
+				border.put(index, this.fillerItem);
 
 			if (column == 1 || column == 9)
-				items.put(index, this.sideItem);
+				border.put(index, this.sideItem);
 		}
 
-		if (this.topDecreasing)
-			this.topPointer--;
+		int topPointer = 0;
+		int bottomPointer = this.frameSize - 1;
+		boolean topDecreasing = false;
+		boolean bottomDecreasing = true;
+
+		for (int frame = 0; frame < FRAME_COUNT; frame++) {
+			final Map<Integer, ItemStack> items = new HashMap<>(border);
 
-		else
-			this.topPointer++;
+			topPointer += topDecreasing ? -1 : 1;
 
-		if (this.topPointer == 0)
-			this.topDecreasing = false;
+			if (topPointer == 0)
+				topDecreasing = false;
 
-		else if (this.topPointer == 8)
-			this.topDecreasing = true;
+			else if (topPointer == 8)
+				topDecreasing = true;
 
-		if (this.bottomDecreasing)
-			this.bottomPointer--;
+			bottomPointer += bottomDecreasing ? -1 : 1;
 
-		else
-			this.bottomPointer++;
+			if (bottomPointer == this.frameSize - 9)
+				bottomDecreasing = false;
 
-		if (this.bottomPointer == this.frameSize - 9)
-			this.bottomDecreasing = false;
+			else if (bottomPointer == this.frameSize - 1)
+				bottomDecreasing = true;
 
-		else if (this.bottomPointer == this.frameSize - 1)
-			this.bottomDecreasing = true;
+			items.replace(topPointer, this.highlightItem);
+			items.replace(bottomPointer, this.highlightItem);
 
-		items.replace(this.topPointer, this.highlightItem);
-		items.replace(this.bottomPointer, this.highlightItem);
+			if (topPointer == 0 || topPointer == 8)
+				items.replace(topPointer, this.cornerItem);
 
-		if (this.topPointer == 0 || this.topPointer == 8)
-			items.replace(this.topPointer, this.cornerItem);
+			if (bottomPointer == this.frameSize - 9 || bottomPointer == this.frameSize - 1)
+				items.replace(bottomPointer, this.cornerItem);
 
-		if (this.bottomPointer == this.frameSize - 9 || this.bottomPointer == this.frameSize - 1)
-			items.replace(this.bottomPointer, this.cornerItem);
+			frames[frame] = items;
+		}
 
-		return items;
+		return frames;
 	}
 
 	/**
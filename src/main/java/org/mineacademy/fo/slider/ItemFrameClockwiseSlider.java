@@ -1,6 +1,8 @@
 package org.mineacademy.fo.slider;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.bukkit.inventory.ItemStack;
@@ -10,6 +12,11 @@ import org.mineacademy.fo.remain.CompMaterial;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * An example slider moving a highlighted item clockwise around the frame.
+ *
+ * Frames are computed once, each call to {@link #next()} returns a new copy.
+ */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class ItemFrameClockwiseSlider implements Slider<Map<Integer, ItemStack>> {
 
@@ -29,9 +36,20 @@ public class ItemFrameClockwiseSlider implements Slider<Map<Integer, ItemStack>>
 	private int frameSize = 27;
 
 	/*
-	 * The current head in the slider.
+	 * The index of the next frame.
 	 */
-	private int currentPointer = 0;
+	private int currentFrame = 0;
+
+	/*
+	 * The precomputed frames, or null if not yet computed
+	 */
+	private Map<Integer, ItemStack>[] frames;
+
+	/*
+	 * The frame to continue from after the last one, the pointer gets stuck
+	 * on frame sizes other than the allowed ones
+	 */
+	private int loopFrame = 0;
 
 	/**
 	 * Set the frame's size
@@ -41,6 +59,8 @@ public class ItemFrameClockwiseSlider implements Slider<Map<Integer, ItemStack>>
 	 */
 	public ItemFrameClockwiseSlider frameSize(final int frameSize) {
 		this.frameSize = frameSize;
+		this.frames = null;
+		this.currentFrame = 0;
 
 		return this;
 	}
@@ -50,8 +70,21 @@ public class ItemFrameClockwiseSlider implements Slider<Map<Integer, ItemStack>>
 	 */
 	@Override
 	public Map<Integer, ItemStack> next() {
+		if (this.frames == null)
+			this.frames = this.computeFrames();
+
+		final Map<Integer, ItemStack> frame = this.frames[this.currentFrame];
+		this.currentFrame = this.currentFrame + 1 < this.frames.length ? this.currentFrame + 1 : this.loopFrame;
 
-		final Map<Integer, ItemStack> items = new HashMap<>();
+		return new HashMap<>(frame);
+	}
+
+	/*
+	 * Compute one full round of the highlighted item around the frame
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<Integer, ItemStack>[] computeFrames() {
+		final Map<Integer, ItemStack> border = new HashMap<>();
 		final int rowCount = this.frameSize / 9;
 
 		for (int index = 0; index < this.frameSize; index++) {
@@ -59,52 +92,81 @@ public class ItemFrameClockwiseSlider implements Slider<Map<Integer, ItemStack>>
 			final int column = (index % 9) + 1;
 
 			if (row == 0 || row == rowCount - 1 || column == 1 || column == 9)
-				items.put(index, this.fillerItem);
+				border.put(index, this.fillerItem);
 		}
 
-		if (this.currentPointer < 8)
-			this.currentPointer++;
+		final List<Map<Integer, ItemStack>> frames = new ArrayList<>();
+		final Map<Integer, Integer> framesByPointer = new HashMap<>();
+		int pointer = 0;
+
+		// Advance until the pointer repeats, then loop from the frame showing it
+		while (true) {
+			pointer = this.advance(pointer, rowCount);
+
+			final Integer seenFrame = framesByPointer.get(pointer);
 
-		else if (this.currentPointer == 8)
-			this.currentPointer = 17;
+			if (seenFrame != null) {
+				this.loopFrame = seenFrame;
 
-		else if (this.currentPointer <= this.frameSize - 1 && this.currentPointer > this.frameSize - 9)
-			this.currentPointer--;
+				break;
+			}
 
-		else if (this.currentPointer == 9)
-			this.currentPointer = 0;
+			final Map<Integer, ItemStack> items = new HashMap<>(border);
+
+			items.replace(pointer, this.highlightItem);
+
+			framesByPointer.put(pointer, frames.size());
+			frames.add(items);
+		}
+
+		return frames.toArray(new Map[frames.size()]);
+	}
+
+	/*
+	 * Return the next slot clockwise around the frame
+	 */
+	private int advance(int pointer, final int rowCount) {
+		if (pointer < 8)
+			pointer++;
+
+		else if (pointer == 8)
+			pointer = 17;
+
+		else if (pointer <= this.frameSize - 1 && pointer > this.frameSize - 9)
+			pointer--;
+
+		else if (pointer == 9)
+			pointer = 0;
 
 		else if (rowCount >= 3)
-			if (this.currentPointer == 17)
-				this.currentPointer = 26;
+			if (pointer == 17)
+				pointer = 26;
 
-			else if (this.currentPointer == 18)
-				this.currentPointer = 9;
+			else if (pointer == 18)
+				pointer = 9;
 
 			else if (rowCount >= 4)
-				if (this.currentPointer == 26)
-					this.currentPointer = 35;
+				if (pointer == 26)
+					pointer = 35;
 
-				else if (this.currentPointer == 27)
-					this.currentPointer = 18;
+				else if (pointer == 27)
+					pointer = 18;
 
 				else if (rowCount >= 5)
-					if (this.currentPointer == 35)
-						this.currentPointer = 44;
+					if (pointer == 35)
+						pointer = 44;
 
-					else if (this.currentPointer == 36)
-						this.currentPointer = 27;
+					else if (pointer == 36)
+						pointer = 27;
 
 					else if (rowCount == 6)
-						if (this.currentPointer == 44)
-							this.currentPointer = 53;
-
-						else if (this.currentPointer == 45)
-							this.currentPointer = 36;
+						if (pointer == 44)
+							pointer = 53;
 
-		items.replace(this.currentPointer, this.highlightItem);
+						else if (pointer == 45)
+							pointer = 36;
 
-		return items;
+		return pointer;
 	}
 
 	/**
@@ -12,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 
 /**
  * An example slider iterating through items and highlighting one.
+ *
+ * Frames are computed once, each call to {@link #next()} returns a new copy.
  */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class ItemSlider implements Slider<List<ItemStack>> {
@@ -36,6 +38,11 @@ public final class ItemSlider implements Slider<List<ItemStack>> {
 	 */
 	private int currentPointer = 0;
 
+	/*
+	 * The precomputed frames, or null if not yet computed
+	 */
+	private List<ItemStack>[] frames;
+
 	/**
 	 * Set the amount of items to surround the highlighted item around (left and right side).
 	 *
@@ -44,6 +51,7 @@ public final class ItemSlider implements Slider<List<ItemStack>> {
 	 */
 	public ItemSlider width(int width) {
 		this.width = width;
+		this.frames = null;
 
 		return this;
 	}
@@ -54,22 +62,37 @@ public final class ItemSlider implements Slider<List<ItemStack>> {
 	@Override
 	public List<ItemStack> next() {
 
-		if (this.currentPointer == this.width)
+		if (this.currentPointer >= this.width)
 			this.currentPointer = 0;
 
-		final List<ItemStack> items = new ArrayList<>();
+		if (this.frames == null)
+			this.frames = this.computeFrames();
+
+		return new ArrayList<>(this.frames[this.currentPointer++]);
+	}
+
+	/*
+	 * Compute all frames, one for each pointer position
+	 */
+	@SuppressWarnings("unchecked")
+	private List<ItemStack>[] computeFrames() {
+		final List<ItemStack>[] frames = new List[Math.max(1, this.width)];
+
+		for (int pointer = 0; pointer < frames.length; pointer++) {
+			final List<ItemStack> items = new ArrayList<>();
 
-		for (int i = this.width - 1; i > this.width - this.currentPointer - 1; i--)
-			items.add(this.fillerItem);
+			for (int i = this.width - 1; i > this.width - pointer - 1; i--)
+				items.add(this.fillerItem);
 
-		items.add(this.highlightItem);
+			items.add(this.highlightItem);
 
-		for (int i = 0; i < this.width - this.currentPointer - 1; i++)
-			items.add(this.fillerItem);
+			for (int i = 0; i < this.width - pointer - 1; i++)
+				items.add(this.fillerItem);
 
-		this.currentPointer++;
+			frames[pointer] = items;
+		}
 
-		return items;
+		return frames;
 	}
 
 	/**
@@ -1,14 +1,26 @@
 package org.mineacademy.fo.visual;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import org.bukkit.Location;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.FallingBlock;
 import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
+import org.mineacademy.fo.BlockUtil;
 import org.mineacademy.fo.MinecraftVersion;
 import org.mineacademy.fo.MinecraftVersion.V;
 import org.mineacademy.fo.Valid;
@@ -31,6 +43,17 @@ public class BlockVisualizer {
 	 */
 	private final StrictMap<Location, Object /*Old Minecraft compatibility.*/> visualizedBlocks = new StrictMap<>();
 
+	/**
+	 * Stores blocks visualized via packets only, per player
+	 */
+	private final Map<UUID, Set<Block>> packetVisualizedBlocks = new HashMap<>();
+
+	/**
+	 * Should {@link VisualTool} visualize blocks via packets only, without spawning
+	 * any entities? Block names are not shown in this mode.
+	 */
+	private boolean packetMode = false;
+
 	/**
 	 * Starts visualizing the block at the given location.
 	 *
@@ -115,6 +138,176 @@ public class BlockVisualizer {
 		}
 	}
 
+	// ------------------------------------------------------------------------------------------------------------
+	// Packet-only visualization
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Return true if {@link VisualTool} visualizes blocks via packets only
+	 *
+	 * @return
+	 */
+	public boolean isPacketMode() {
+		return packetMode;
+	}
+
+	/**
+	 * Set if {@link VisualTool} should visualize blocks via packets only, without
+	 * spawning any entities. Block names are not shown in this mode.
+	 *
+	 * @param packetMode
+	 */
+	public void setPacketMode(final boolean packetMode) {
+		BlockVisualizer.packetMode = packetMode;
+	}
+
+	/**
+	 * Starts visualizing the block only for the given player by sending a fake
+	 * block change, without spawning any entities.
+	 *
+	 * @param player
+	 * @param block
+	 * @param mask
+	 */
+	public void visualizeFor(@NonNull final Player player, @NonNull final Block block, @NonNull final CompMaterial mask) {
+		final Map<Block, CompMaterial> blocks = new HashMap<>();
+		blocks.put(block, mask);
+
+		visualizeFor(player, blocks);
+	}
+
+	/**
+	 * Starts visualizing the blocks only for the given player by sending fake
+	 * block changes grouped by chunk section, without spawning any entities.
+	 *
+	 * @param player
+	 * @param blocks the blocks and the material each should appear as
+	 */
+	public void visualizeFor(@NonNull final Player player, @NonNull final Map<Block, CompMaterial> blocks) {
+		if (blocks.isEmpty())
+			return;
+
+		packetVisualizedBlocks.computeIfAbsent(player.getUniqueId(), uuid -> new LinkedHashSet<>()).addAll(blocks.keySet());
+
+		sendBlockChanges(player, blocks);
+	}
+
+	/**
+	 * Stops visualizing the given blocks for the player, restoring their real state
+	 *
+	 * @param player
+	 * @param blocks
+	 */
+	public void stopVisualizingFor(@NonNull final Player player, @NonNull final Collection<Block> blocks) {
+		final Set<Block> visualized = packetVisualizedBlocks.get(player.getUniqueId());
+
+		if (visualized == null)
+			return;
+
+		final Map<Block, CompMaterial> restored = new LinkedHashMap<>();
+
+		for (final Block block : blocks)
+			if (visualized.remove(block))
+				restored.put(block, null);
+
+		if (visualized.isEmpty())
+			packetVisualizedBlocks.remove(player.getUniqueId());
+
+		sendBlockChanges(player, restored);
+	}
+
+	/**
+	 * Stops visualizing all blocks for the player in one batch, restoring their real state
+	 *
+	 * @param player
+	 */
+	public void stopVisualizingFor(@NonNull final Player player) {
+		final Set<Block> visualized = packetVisualizedBlocks.remove(player.getUniqueId());
+
+		if (visualized == null)
+			return;
+
+		final Map<Block, CompMaterial> restored = new LinkedHashMap<>();
+
+		for (final Block block : visualized)
+			if (block.getWorld().equals(player.getWorld()))
+				restored.put(block, null);
+
+		sendBlockChanges(player, restored);
+	}
+
+	/**
+	 * Return true if the given block is being visualized via packets for the player
+	 *
+	 * @param player
+	 * @param block
+	 * @return
+	 */
+	public boolean isVisualizedFor(@NonNull final Player player, @NonNull final Block block) {
+		final Set<Block> visualized = packetVisualizedBlocks.get(player.getUniqueId());
+
+		return visualized != null && visualized.contains(block);
+	}
+
+	/**
+	 * Forget blocks visualized via packets for the player without sending anything,
+	 * called automatically when the player quits
+	 *
+	 * @param player
+	 */
+	public void forget(@NonNull final Player player) {
+		packetVisualizedBlocks.remove(player.getUniqueId());
+	}
+
+	/*
+	 * Send the blocks as the given mask, or their real state if the mask is null,
+	 * using one multi block change per chunk section where the server supports it
+	 */
+	private void sendBlockChanges(final Player player, final Map<Block, CompMaterial> blocks) {
+		if (blocks.isEmpty())
+			return;
+
+		if (MinecraftVersion.olderThan(V.v1_13)) {
+			for (final Map.Entry<Block, CompMaterial> entry : blocks.entrySet())
+				if (entry.getValue() != null)
+					Remain.sendBlockChange(0, player, entry.getKey().getLocation(), entry.getValue());
+				else
+					Remain.sendBlockChange(0, player, entry.getKey());
+
+			return;
+		}
+
+		final Map<Long, List<BlockState>> sections = new LinkedHashMap<>();
+		final Map<CompMaterial, BlockData> blockData = new HashMap<>();
+
+		for (final Map.Entry<Block, CompMaterial> entry : blocks.entrySet()) {
+			final Block block = entry.getKey();
+			final BlockState state = block.getState();
+			final CompMaterial mask = entry.getValue();
+
+			if (mask != null)
+				state.setBlockData(blockData.computeIfAbsent(mask, material -> material.getMaterial().createBlockData()));
+
+			sections.computeIfAbsent(BlockUtil.toBlockKey(block.getX() >> 4, block.getY() >> 4, block.getZ() >> 4), key -> new ArrayList<>()).add(state);
+		}
+
+		for (final List<BlockState> section : sections.values())
+			sendSection(player, section);
+	}
+
+	/*
+	 * Send a single chunk section worth of block changes
+	 */
+	private void sendSection(final Player player, final List<BlockState> states) {
+		try {
+			player.sendBlockChanges(states);
+
+		} catch (final NoSuchMethodError err) {
+			for (final BlockState state : states)
+				player.sendBlockChange(state.getLocation(), state.getBlockData());
+		}
+	}
+
 	/**
 	 * Return true if the given block is currently being visualized.
 	 *
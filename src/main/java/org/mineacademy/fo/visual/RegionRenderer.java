@@ -0,0 +1,190 @@
+package org.mineacademy.fo.visual;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.mineacademy.fo.Common;
+import org.mineacademy.fo.remain.CompParticle;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single timer rendering particles of all visualized regions.
+ *
+ * Viewers outside of {@link #RENDER_DISTANCE} are skipped, the further the viewer
+ * is the fewer points are shown, and each viewer gets at most {@link #MAX_PARTICLES_PER_TICK}
+ * particles per tick across all regions so that showing many regions at once cannot lag the server.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RegionRenderer {
+
+	/**
+	 * Viewers further than this many blocks from a region do not see it
+	 */
+	public static double RENDER_DISTANCE = 100;
+
+	/**
+	 * Each this many blocks of distance between the viewer and the region,
+	 * one more point is skipped between shown points
+	 */
+	public static double DENSITY_DISTANCE_STEP = 24;
+
+	/**
+	 * The maximum amount of particles a single viewer receives each tick
+	 */
+	public static int MAX_PARTICLES_PER_TICK = 1_000;
+
+	/**
+	 * Regions being rendered, by identity since their points may change while rendered
+	 */
+	private static final Set<VisualizedRegion> regions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/**
+	 * Particles left for each viewer in the current tick
+	 */
+	private static final Map<Player, int[]> budgets = new IdentityHashMap<>();
+
+	/**
+	 * The shared task, or null if nothing is rendered
+	 */
+	private static BukkitTask task;
+
+	/**
+	 * Ticks elapsed since the task started
+	 */
+	private static long ticks;
+
+	/*
+	 * Start rendering the region
+	 */
+	static void register(VisualizedRegion region) {
+		regions.add(region);
+
+		if (task == null) {
+			ticks = 0;
+			task = Common.runTimer(1, RegionRenderer::tick);
+		}
+	}
+
+	/*
+	 * Stop rendering the region
+	 */
+	static void unregister(VisualizedRegion region) {
+		regions.remove(region);
+
+		if (regions.isEmpty() && task != null) {
+			task.cancel();
+
+			task = null;
+			budgets.clear();
+		}
+	}
+
+	/*
+	 * Render all regions whose delay has passed
+	 */
+	private static void tick() {
+		ticks++;
+		budgets.clear();
+
+		for (final VisualizedRegion region : new ArrayList<>(regions)) {
+			if (!region.hasViewers() || !region.isWhole()) {
+				if (region.isVisualizing())
+					region.stopVisualizing();
+
+				else
+					unregister(region);
+
+				continue;
+			}
+
+			// Spread regions with the same delay over different ticks
+			if ((ticks + region.getRenderOffset()) % Math.max(1, region.getDelayTicks()) == 0)
+				render(region);
+		}
+	}
+
+	/*
+	 * Send the region particles to each of its viewers
+	 */
+	private static void render(VisualizedRegion region) {
+		final double[] points = region.getEdgePoints();
+		final double[] box = region.getEdgeBox();
+		final UUID worldUid = region.getWorldUid();
+		final int pointCount = points.length / 3;
+
+		if (pointCount == 0)
+			return;
+
+		final double maxDistanceSquared = RENDER_DISTANCE * RENDER_DISTANCE;
+
+		for (final Map.Entry<Player, Color> entry : region.getViewers().entrySet()) {
+			final Player viewer = entry.getKey();
+			final Color color = entry.getValue();
+
+			if (!viewer.isOnline())
+				continue;
+
+			final Location viewerLocation = viewer.getLocation();
+			final World world = viewerLocation.getWorld();
+
+			if (world == null || !world.getUID().equals(worldUid))
+				continue;
+
+			final double viewerX = viewerLocation.getX(), viewerY = viewerLocation.getY(), viewerZ = viewerLocation.getZ();
+
+			// Distance to the closest point of the region box
+			final double distanceX = Math.max(0, Math.max(box[0] - viewerX, viewerX - box[3]));
+			final double distanceY = Math.max(0, Math.max(box[1] - viewerY, viewerY - box[4]));
+			final double distanceZ = Math.max(0, Math.max(box[2] - viewerZ, viewerZ - box[5]));
+			final double distance = Math.sqrt(distanceX * distanceX + distanceY * distanceY + distanceZ * distanceZ);
+
+			if (distance > RENDER_DISTANCE)
+				continue;
+
+			final int[] budget = budgets.computeIfAbsent(viewer, player -> new int[] { MAX_PARTICLES_PER_TICK });
+
+			if (budget[0] <= 0)
+				continue;
+
+			final int stride = 1 + (int) (distance / DENSITY_DISTANCE_STEP);
+			final int steps = (pointCount + stride - 1) / stride;
+
+			// Start at a different point each time so capped regions still get fully shown over time
+			final int offset = (int) ((ticks * 7919) % pointCount);
+			final Location location = new Location(world, 0, 0, 0);
+
+			for (int step = 0; step < steps && budget[0] > 0; step++) {
+				final int index = (int) ((offset + (long) step * stride) % pointCount) * 3;
+
+				final double x = points[index], y = points[index + 1], z = points[index + 2];
+				final double pointX = x - viewerX, pointY = y - viewerY, pointZ = z - viewerZ;
+
+				if (pointX * pointX + pointY * pointY + pointZ * pointZ > maxDistanceSquared)
+					continue;
+
+				location.setX(x);
+				location.setY(y);
+				location.setZ(z);
+
+				if (color != null)
+					CompParticle.REDSTONE.spawn(viewer, location, color, 0.5F);
+
+				else
+					region.getParticle().spawn(viewer, location);
+
+				budget[0]--;
+			}
+		}
+	}
+}
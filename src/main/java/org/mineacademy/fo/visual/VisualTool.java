@@ -1,7 +1,9 @@
 package org.mineacademy.fo.visual;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.bukkit.Location;
 import org.bukkit.block.Block;
@@ -202,6 +204,20 @@ public abstract class VisualTool extends BlockTool {
 			if (!region.canSeeParticles(player))
 				region.showParticles(player);
 
+		if (BlockVisualizer.isPacketMode()) {
+			final Map<Block, CompMaterial> blocks = new LinkedHashMap<>();
+
+			for (final Location location : this.getVisualizedPoints(player))
+				if (location != null) {
+					final Block block = location.getBlock();
+
+					blocks.put(block, this.getBlockMask(block, player));
+				}
+
+			BlockVisualizer.visualizeFor(player, blocks);
+			return;
+		}
+
 		for (final Location location : this.getVisualizedPoints(player)) {
 			if (location == null)
 				continue;
@@ -222,6 +238,17 @@ public abstract class VisualTool extends BlockTool {
 		if (region != null && region.canSeeParticles(player))
 			region.hideParticles(player);
 
+		if (BlockVisualizer.isPacketMode()) {
+			final List<Block> blocks = new ArrayList<>();
+
+			for (final Location location : this.getVisualizedPoints(player))
+				if (location != null)
+					blocks.add(location.getBlock());
+
+			BlockVisualizer.stopVisualizingFor(player, blocks);
+			return;
+		}
+
 		for (final Location location : this.getVisualizedPoints(player)) {
 			if (location == null)
 				continue;
@@ -8,14 +8,12 @@ import javax.annotation.Nullable;
 import org.bukkit.Color;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.mineacademy.fo.BlockUtil;
 import org.mineacademy.fo.Common;
 import org.mineacademy.fo.SerializeUtil;
 import org.mineacademy.fo.Valid;
 import org.mineacademy.fo.collection.SerializedMap;
 import org.mineacademy.fo.collection.StrictMap;
-import org.mineacademy.fo.model.SimpleRunnable;
 import org.mineacademy.fo.region.Region;
 import org.mineacademy.fo.remain.CompParticle;
 
@@ -41,13 +39,19 @@ public final class VisualizedRegion extends Region {
 	/**
 	 * Should we visualize the walls or just the edges?
 	 */
-	@Setter
 	private boolean fillWalls;
 
 	/**
-	 * The task responsible for sending particles
+	 * Is this region being rendered by {@link RegionRenderer}?
+	 */
+	private boolean visualizing;
+
+	/*
+	 * The cached bounding box points as packed x, y, z triples, and the box around them,
+	 * null until first rendered or after the region changes
 	 */
-	private BukkitTask task;
+	private double[] edgePoints;
+	private double[] edgeBox;
 
 	/**
 	 * The particle that is being sent out
@@ -171,7 +175,7 @@ public final class VisualizedRegion extends Region {
 
 		this.viewers.put(player, color);
 
-		if (this.task == null)
+		if (!this.visualizing)
 			this.startVisualizing();
 	}
 
@@ -185,7 +189,7 @@ public final class VisualizedRegion extends Region {
 
 		this.viewers.removeWeak(player);
 
-		if (this.viewers.isEmpty() && this.task != null)
+		if (this.viewers.isEmpty() && this.visualizing)
 			this.stopVisualizing();
 	}
 
@@ -200,51 +204,114 @@ public final class VisualizedRegion extends Region {
 		return this.viewers.containsKey(player);
 	}
 
+	/**
+	 * Set if we should visualize the walls or just the edges
+	 *
+	 * @param fillWalls
+	 */
+	public void setFillWalls(boolean fillWalls) {
+		this.fillWalls = fillWalls;
+
+		this.onBoundsChange();
+	}
+
+	/**
+	 * Clear cached edge points so they are recalculated on the next render
+	 */
+	@Override
+	protected void onBoundsChange() {
+		this.edgePoints = null;
+		this.edgeBox = null;
+	}
+
 	/*
-	 * Starts visualizing this region if it is whole
+	 * Return true if anyone is viewing this region
 	 */
-	private void startVisualizing() {
-		Valid.checkBoolean(this.task == null, "Already visualizing region " + this + "!");
-		Valid.checkBoolean(this.isWhole(), "Cannot visualize incomplete region " + this + "!");
+	boolean hasViewers() {
+		return !this.viewers.isEmpty();
+	}
 
-		this.task = Common.runTimer(this.delayTicks, new SimpleRunnable() {
-			@Override
-			public void run() {
-				if (VisualizedRegion.this.viewers.isEmpty() || !VisualizedRegion.this.isWhole()) {
-					VisualizedRegion.this.stopVisualizing();
+	/*
+	 * Return the viewers and their particle colors
+	 */
+	Map<Player, Color> getViewers() {
+		return this.viewers.getSource();
+	}
 
-					return;
-				}
+	/*
+	 * Return an offset so that regions with the same delay do not all render at the same tick
+	 */
+	int getRenderOffset() {
+		return System.identityHashCode(this) & Integer.MAX_VALUE;
+	}
+
+	/*
+	 * Return the bounding box points as packed x, y, z triples, calculating them once
+	 */
+	double[] getEdgePoints() {
+		if (this.edgePoints == null) {
+			final Set<Location> locations = BlockUtil.getBoundingBox(this.getPrimary(), this.getSecondary(), this.fillWalls);
+			final double[] points = new double[locations.size() * 3];
+			final double[] box = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+			int index = 0;
+
+			for (final Location location : locations) {
+				points[index++] = location.getX();
+				points[index++] = location.getY();
+				points[index++] = location.getZ();
+
+				box[0] = Math.min(box[0], location.getX());
+				box[1] = Math.min(box[1], location.getY());
+				box[2] = Math.min(box[2], location.getZ());
+				box[3] = Math.max(box[3], location.getX());
+				box[4] = Math.max(box[4], location.getY());
+				box[5] = Math.max(box[5], location.getZ());
+			}
 
-				final Set<Location> blocks = BlockUtil.getBoundingBox(getPrimary(), getSecondary(), fillWalls);
+			this.edgePoints = points;
+			this.edgeBox = box;
+		}
 
-				for (final Location location : blocks)
-					for (final Map.Entry<Player, Color> entry : VisualizedRegion.this.viewers.entrySet()) {
-						final Player viewer = entry.getKey();
-						final Color color = entry.getValue();
-						final Location viewerLocation = viewer.getLocation();
+		return this.edgePoints;
+	}
 
-						if (viewerLocation.getWorld().equals(location.getWorld()) && viewerLocation.distance(location) < 100)
-							if (color != null)
-								CompParticle.REDSTONE.spawn(viewer, location, color, 0.5F);
+	/*
+	 * Return the min x, y, z and max x, y, z of the edge points
+	 */
+	double[] getEdgeBox() {
+		this.getEdgePoints();
 
-							else
-								VisualizedRegion.this.particle.spawn(viewer, location);
-					}
+		return this.edgeBox;
+	}
 
-			}
-		});
+	/*
+	 * Starts visualizing this region if it is whole
+	 */
+	private void startVisualizing() {
+		Valid.checkBoolean(!this.visualizing, "Already visualizing region " + this + "!");
+		Valid.checkBoolean(this.isWhole(), "Cannot visualize incomplete region " + this + "!");
+
+		this.visualizing = true;
+
+		RegionRenderer.register(this);
+	}
+
+	/*
+	 * Return true if this region is registered in the renderer
+	 */
+	boolean isVisualizing() {
+		return this.visualizing;
 	}
 
 	/*
 	 * Stops the region from being visualized
 	 */
-	private void stopVisualizing() {
-		Valid.checkNotNull(this.task, "Region " + this + " not visualized");
+	void stopVisualizing() {
+		Valid.checkBoolean(this.visualizing, "Region " + this + " not visualized");
 
-		this.task.cancel();
-		this.task = null;
+		this.visualizing = false;
 
+		RegionRenderer.unregister(this);
 		this.viewers.clear();
 	}
 